@@ -19,54 +19,60 @@
  */
 package com.wultra.security.powerauth.rest.api.spring.annotation.support;
 
-import com.wultra.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
 import com.wultra.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import com.wultra.security.powerauth.http.PowerAuthTokenHttpHeader;
-import com.wultra.security.powerauth.rest.api.spring.annotation.EncryptedRequestBody;
-import com.wultra.security.powerauth.rest.api.spring.annotation.PowerAuth;
-import com.wultra.security.powerauth.rest.api.spring.annotation.PowerAuthEncryption;
-import com.wultra.security.powerauth.rest.api.spring.annotation.PowerAuthToken;
 import com.wultra.security.powerauth.rest.api.spring.authentication.PowerAuthApiAuthentication;
+import com.wultra.security.powerauth.rest.api.spring.configuration.PowerAuthAuthenticationConfigurationProperties;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthAuthenticationException;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthEncryptionException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthHeaderMissingException;
+import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthTokenErrorException;
 import com.wultra.security.powerauth.rest.api.spring.model.PowerAuthRequestObjects;
 import com.wultra.security.powerauth.rest.api.spring.provider.PowerAuthAuthenticationProvider;
 import com.wultra.security.powerauth.rest.api.spring.provider.PowerAuthEncryptionProvider;
-import org.apache.commons.text.StringSubstitutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.MethodParameter;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.AsyncHandlerInterceptor;
-import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.lang.reflect.Type;
-import java.util.Arrays;
-import java.util.List;
+import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Interceptor class for the PowerAuth related annotations: @PowerAuth, @PowerAuthToken and @PowerAuthEncryption.
+ * <p>
+ * Annotations of the handler methods are compiled into security plans when the application context is refreshed,
+ * the request processing only looks up the precompiled plan.
  *
  * @author Petr Dvorak, petr@wultra.com
  */
 @Component
-public class PowerAuthAnnotationInterceptor implements AsyncHandlerInterceptor {
+public class PowerAuthAnnotationInterceptor implements AsyncHandlerInterceptor, ApplicationListener<ContextRefreshedEvent> {
 
     private static final Logger logger = LoggerFactory.getLogger(PowerAuthAnnotationInterceptor.class);
 
     private PowerAuthAuthenticationProvider authenticationProvider;
     private PowerAuthEncryptionProvider encryptionProvider;
 
+    private Duration asyncValidationTimeout = new PowerAuthAuthenticationConfigurationProperties().getAsyncValidationTimeout();
+
+    private final Map<HandlerMethodKey, PowerAuthHandlerSecurityPlan> securityPlans = new ConcurrentHashMap<>();
+
     /**
      * Set authentication provider via setter injection.
      * @param authenticationProvider Authentication provider.
@@ -85,6 +91,29 @@ public class PowerAuthAnnotationInterceptor implements AsyncHandlerInterceptor {
         this.encryptionProvider = encryptionProvider;
     }
 
+    /**
+     * Set authentication configuration properties via setter injection.
+     * @param authenticationConfigurationProperties Authentication configuration properties.
+     */
+    @Autowired(required = false)
+    public void setAuthenticationConfigurationProperties(PowerAuthAuthenticationConfigurationProperties authenticationConfigurationProperties) {
+        this.asyncValidationTimeout = authenticationConfigurationProperties.getAsyncValidationTimeout();
+    }
+
+    @Override
+    public void onApplicationEvent(@NonNull ContextRefreshedEvent event) {
+        // Compile security plans of all request mappings up-front, so that the first requests do not pay for it
+        final Map<String, RequestMappingHandlerMapping> handlerMappings = event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class);
+        int count = 0;
+        for (RequestMappingHandlerMapping handlerMapping : handlerMappings.values()) {
+            for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+                getSecurityPlan(handlerMethod);
+                count++;
+            }
+        }
+        logger.debug("Compiled PowerAuth security plans for {} handler methods", count);
+    }
+
     @Override
     public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
 
@@ -94,67 +123,82 @@ public class PowerAuthAnnotationInterceptor implements AsyncHandlerInterceptor {
         // requests before the actual requests.
         if (handler instanceof final HandlerMethod handlerMethod) {
 
-            // Obtain annotations
-            PowerAuth powerAuthSignatureAnnotation = handlerMethod.getMethodAnnotation(PowerAuth.class);
-            PowerAuthToken powerAuthTokenAnnotation = handlerMethod.getMethodAnnotation(PowerAuthToken.class);
-            PowerAuthEncryption powerAuthEncryptionAnnotation = handlerMethod.getMethodAnnotation(PowerAuthEncryption.class);
+            // Obtain precompiled security plan, annotations are resolved only once per handler method
+            final PowerAuthHandlerSecurityPlan securityPlan = getSecurityPlan(handlerMethod);
+            if (securityPlan == PowerAuthHandlerSecurityPlan.EMPTY) {
+                return true;
+            }
 
-            // Check that either signature or token annotation is active
-            if (powerAuthSignatureAnnotation != null && powerAuthTokenAnnotation != null) {
-                logger.warn("You cannot use both @PowerAuth and @PowerAuthToken on same handler method. We are removing both.");
-                powerAuthSignatureAnnotation = null;
-                powerAuthTokenAnnotation = null;
+            // Token validation does not depend on the request body, start it concurrently with the decryption
+            // in case both @PowerAuthToken and @PowerAuthEncryption annotations are present and the validation does not
+            // occupy a thread of the bounded default pool.
+            final PowerAuthHandlerSecurityPlan.PowerAuthTokenPlan tokenPlan = securityPlan.getTokenPlan();
+            final String tokenHeader = tokenPlan != null ? request.getHeader(PowerAuthTokenHttpHeader.HEADER_NAME) : null;
+            final CompletableFuture<PowerAuthApiAuthentication> tokenValidation;
+            if (tokenHeader != null && securityPlan.getEncryptionScope() != null && authenticationProvider.isAsyncAuthenticationPreferred()) {
+                tokenValidation = authenticationProvider.validateTokenWithActivationDetailsAsync(tokenHeader, tokenPlan.getSignatureTypes());
+            } else {
+                tokenValidation = null;
             }
 
-            // Resolve @PowerAuthEncryption annotation. The order of processing is important, PowerAuth expects
-            // sign-then-encrypt sequence in case both authorization and encryption are used.
-            if (powerAuthEncryptionAnnotation != null) {
-                final Type requestType = resolveGenericParameterTypeForEcies(handlerMethod);
-                try {
-                    encryptionProvider.decryptRequest(request, requestType, powerAuthEncryptionAnnotation.scope());
-                    // Encryption object is saved in HTTP servlet request by encryption provider, so that it is available for Spring
-                } catch (PowerAuthEncryptionException ex) {
-                    logger.warn("Decryption failed, error: {}", ex.getMessage());
-                    logger.debug("Error details", ex);
+            try {
+                // Resolve @PowerAuthEncryption annotation. The order of processing is important, PowerAuth expects
+                // sign-then-encrypt sequence in case both signature and encryption are used.
+                if (securityPlan.getEncryptionScope() != null) {
+                    try {
+                        encryptionProvider.decryptRequest(request, securityPlan.getEncryptedRequestType(), securityPlan.getEncryptionScope());
+                        // Encryption object is saved in HTTP servlet request by encryption provider, so that it is available for Spring
+                    } catch (PowerAuthEncryptionException ex) {
+                        logger.warn("Decryption failed, error: {}", ex.getMessage());
+                        logger.debug("Error details", ex);
+                    }
                 }
-            }
 
-            // Resolve @PowerAuth annotation
-            if (powerAuthSignatureAnnotation != null) {
-                try {
-                    final String resourceId = expandResourceId(powerAuthSignatureAnnotation.resourceId(), request, handlerMethod);
-                    final String header = request.getHeader(PowerAuthSignatureHttpHeader.HEADER_NAME);
-                    if (header == null) {
-                        logger.warn("Signature HTTP header is missing");
-                        throw new PowerAuthHeaderMissingException();
+                // Resolve @PowerAuth annotation
+                final PowerAuthHandlerSecurityPlan.PowerAuthSignaturePlan signaturePlan = securityPlan.getSignaturePlan();
+                if (signaturePlan != null) {
+                    try {
+                        final String resourceId = signaturePlan.expandResourceId(request);
+                        final String header = request.getHeader(PowerAuthSignatureHttpHeader.HEADER_NAME);
+                        if (header == null) {
+                            logger.warn("Signature HTTP header is missing");
+                            throw PowerAuthHeaderMissingException.stackless();
+                        }
+                        final PowerAuthApiAuthentication authentication = authenticationProvider.validateRequestSignatureWithActivationDetails(
+                                request, resourceId, header, signaturePlan.getSignatureTypes()
+                        );
+                        request.setAttribute(PowerAuthRequestObjects.AUTHENTICATION_OBJECT, authentication);
+                    } catch (PowerAuthAuthenticationException ex) {
+                        logger.warn("Invalid request signature, authentication object was removed");
+                        request.setAttribute(PowerAuthRequestObjects.AUTHENTICATION_OBJECT, null);
                     }
-                    final List<PowerAuthSignatureTypes> signatureTypes = Arrays.asList(powerAuthSignatureAnnotation.signatureType());
-                    final PowerAuthApiAuthentication authentication = authenticationProvider.validateRequestSignatureWithActivationDetails(
-                            request, resourceId, header, signatureTypes
-                    );
-                    request.setAttribute(PowerAuthRequestObjects.AUTHENTICATION_OBJECT, authentication);
-                } catch (PowerAuthAuthenticationException ex) {
-                    logger.warn("Invalid request signature, authentication object was removed");
-                    request.setAttribute(PowerAuthRequestObjects.AUTHENTICATION_OBJECT, null);
                 }
-            }
 
-            // Resolve @PowerAuthToken annotation
-            if (powerAuthTokenAnnotation != null) {
-                try {
-                    final String header = request.getHeader(PowerAuthTokenHttpHeader.HEADER_NAME);
-                    if (header == null) {
-                        logger.warn("Token HTTP header is missing");
-                        throw new PowerAuthHeaderMissingException();
+                // Resolve @PowerAuthToken annotation
+                if (tokenPlan != null) {
+                    try {
+                        if (tokenHeader == null) {
+                            logger.warn("Token HTTP header is missing");
+                            throw PowerAuthHeaderMissingException.stackless();
+                        }
+                        final PowerAuthApiAuthentication authentication;
+                        if (tokenValidation != null) {
+                            authentication = awaitTokenValidation(tokenValidation);
+                        } else {
+                            authentication = authenticationProvider.validateTokenWithActivationDetails(
+                                    tokenHeader, tokenPlan.getSignatureTypes()
+                            );
+                        }
+                        request.setAttribute(PowerAuthRequestObjects.AUTHENTICATION_OBJECT, authentication);
+                    } catch (PowerAuthAuthenticationException ex) {
+                        logger.warn("Invalid token, authentication object was removed");
+                        request.setAttribute(PowerAuthRequestObjects.AUTHENTICATION_OBJECT, null);
                     }
-                    final List<PowerAuthSignatureTypes> signatureTypes = Arrays.asList(powerAuthTokenAnnotation.signatureType());
-                    final PowerAuthApiAuthentication authentication = authenticationProvider.validateTokenWithActivationDetails(
-                            header, signatureTypes
-                    );
-                    request.setAttribute(PowerAuthRequestObjects.AUTHENTICATION_OBJECT, authentication);
-                } catch (PowerAuthAuthenticationException ex) {
-                    logger.warn("Invalid token, authentication object was removed");
-                    request.setAttribute(PowerAuthRequestObjects.AUTHENTICATION_OBJECT, null);
+                }
+            } finally {
+                if (tokenValidation != null && !tokenValidation.isDone()) {
+                    // Processing failed before the token validation was awaited, a validation which did not start yet is skipped
+                    tokenValidation.cancel(true);
                 }
             }
 
@@ -164,79 +208,56 @@ public class PowerAuthAnnotationInterceptor implements AsyncHandlerInterceptor {
     }
 
     /**
-     * Resolve type of request object which is annotated by the @EncryptedRequestBody annotation.
-     * In case such parameter is missing the Object.class type is returned.
+     * Wait for the token validation running concurrently with the request decryption. A validation which does not
+     * complete within the configured timeout fails the authentication, the caller cancels it.
      *
-     * @param handlerMethod Handler method.
-     * @return Resolved type of request object.
+     * @param tokenValidation Token validation in progress.
+     * @return Authentication object.
+     * @throws PowerAuthAuthenticationException In case of authentication failure.
      */
-    private Type resolveGenericParameterTypeForEcies(HandlerMethod handlerMethod) {
-        for (MethodParameter parameter: handlerMethod.getMethodParameters()) {
-            if (parameter.hasParameterAnnotation(EncryptedRequestBody.class)) {
-                return parameter.getGenericParameterType();
+    private PowerAuthApiAuthentication awaitTokenValidation(CompletableFuture<PowerAuthApiAuthentication> tokenValidation) throws PowerAuthAuthenticationException {
+        try {
+            return tokenValidation.get(asyncValidationTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            logger.warn("Token validation did not complete within: {}", asyncValidationTimeout);
+            throw new PowerAuthTokenErrorException();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PowerAuthTokenErrorException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof final PowerAuthAuthenticationException authenticationException) {
+                throw authenticationException;
             }
+            if (ex.getCause() instanceof final RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(ex.getCause());
         }
-        return Object.class;
     }
 
     /**
-     * The method substitutes placeholders (marked via "${placeholder}") in resourceID attribute value by
-     * the actual parameters of the handler method. The implementation takes into account all method parameters
-     * that are annotated via @RequestParam or @PathVariable annotations and extracts values from the request
-     * parameter map.<br>
-     * <br>
-     * <b>
-     *     Note: In case both @RequestParam and @PathVariable with the same name exist, the value of @RequestParam
-     *     takes precedence. This is because @RequestParam usually maps to the HTTP GET query parameter that cannot
-     *     be easily changed in existing API, while @PathVariable is just a URL placeholder that can be renamed in
-     *     the code with no impact on functionality.
-     * </b>
+     * Get security plan for given handler method. The plan is compiled on first access and cached.
+     * Handler methods resolved for a request are new instances, the cache is therefore keyed by
+     * the bean type and the method.
      *
-     * @param resourceId Resource ID with possible placeholders.
-     * @param request HttpServletRequest for the current execution.
-     * @param handlerMethod Handler method that is responsible for the request processing.
-     * @return Resource ID with substituted placeholders.
+     * @param handlerMethod Handler method.
+     * @return Security plan of the handler method.
      */
-    @SuppressWarnings("unchecked")
-    private String expandResourceId(String resourceId, HttpServletRequest request, HandlerMethod handlerMethod) {
-        // Get method parameters that could be replaced in the context of resource ID
-        final Map<String, String> parameters = new TreeMap<>();
-        final MethodParameter[] methodParameters = handlerMethod.getMethodParameters();
-        for (MethodParameter mp : methodParameters) {
-            // Handle parameters annotated by @RequestParam annotation.
-            // These are stored in the servlet request parameter map.
-            // Note: @RequestParam must be processed before @PathVariable since
-            //       in API, it cannot be renamed (the path variable is just
-            //       a placeholder and can have arbitrary name).
-            final RequestParam requestParam = mp.getParameterAnnotation(RequestParam.class);
-            if (requestParam != null) {
-                final String name = requestParam.name();
-                final String value = request.getParameter(name);
-                if (value != null) { // do not check "&& !parameters.containsKey(name)" because in the case of
-                                     // a name conflict, we want @RequestParam to overwrite @PathVariable value
-                    parameters.put(name, value);
-                }
-            } else {
-                // Handle parameters annotated by @PathVariable annotation.
-                // These are stored by Spring in the servlet request attributes map, under a special
-                // URI_TEMPLATE_VARIABLES_ATTRIBUTE key that contains Map<String, String> with path
-                // variable mapping.
-                final PathVariable pathVariable = mp.getParameterAnnotation(PathVariable.class);
-                if (pathVariable != null) {
-                    final String name = pathVariable.name();
-                    final Map<String, String> pathVariableMap = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
-                    if (pathVariableMap != null && !parameters.containsKey(name)) { // prevent overwriting value that is already assigned
-                        final String value = pathVariableMap.get(name);
-                        if (value != null) {
-                            parameters.put(name, value);
-                        }
-                    }
-                }
-            }
+    private PowerAuthHandlerSecurityPlan getSecurityPlan(HandlerMethod handlerMethod) {
+        final HandlerMethodKey key = new HandlerMethodKey(handlerMethod.getBeanType(), handlerMethod.getMethod());
+        final PowerAuthHandlerSecurityPlan securityPlan = securityPlans.get(key);
+        if (securityPlan != null) {
+            return securityPlan;
         }
-        // Substitute the placeholders
-        final StringSubstitutor sub = new StringSubstitutor(parameters);
-        return sub.replace(resourceId);
+        return securityPlans.computeIfAbsent(key, k -> PowerAuthHandlerSecurityPlan.compile(handlerMethod));
+    }
+
+    /**
+     * Key of the security plan cache.
+     * @param beanType Handler bean type.
+     * @param method Handler method.
+     */
+    private record HandlerMethodKey(Class<?> beanType, Method method) {
     }
 
 }
@@ -20,16 +20,16 @@
 package com.wultra.security.powerauth.rest.api.spring.annotation.support;
 
 import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.wultra.security.powerauth.rest.api.spring.annotation.EncryptedRequestBody;
 import com.wultra.security.powerauth.rest.api.spring.annotation.PowerAuthEncryption;
 import com.wultra.security.powerauth.rest.api.spring.encryption.EncryptionContext;
 import com.wultra.security.powerauth.rest.api.spring.encryption.PowerAuthEncryptorData;
 import com.wultra.security.powerauth.rest.api.spring.model.PowerAuthRequestObjects;
+import com.wultra.security.powerauth.rest.api.spring.service.JsonSerializationService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.NonNull;
 import org.springframework.util.StringUtils;
@@ -40,6 +40,8 @@ import org.springframework.web.method.support.ModelAndViewContainer;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Argument resolver for {@link PowerAuthEncryptorData} objects. It enables automatic
@@ -51,7 +53,19 @@ public class PowerAuthEncryptionArgumentResolver implements HandlerMethodArgumen
 
     private static final Logger logger = LoggerFactory.getLogger(PowerAuthEncryptionArgumentResolver.class);
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile JsonSerializationService jsonSerializationService;
+
+    // Resolved types of parameters annotated by @EncryptedRequestBody annotation
+    private final Map<MethodParameter, JavaType> requestTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Set JSON serialization service shared by PowerAuth components via setter injection.
+     * @param jsonSerializationService JSON serialization service.
+     */
+    @Autowired(required = false)
+    public void setJsonSerializationService(JsonSerializationService jsonSerializationService) {
+        this.jsonSerializationService = jsonSerializationService;
+    }
 
     @Override
     public boolean supportsParameter(@NonNull MethodParameter parameter) {
@@ -69,11 +83,18 @@ public class PowerAuthEncryptionArgumentResolver implements HandlerMethodArgumen
             if (requestType.equals(byte[].class)) {
                 return eciesObject.getDecryptedRequest();
             } else {
+                final JavaType requestJavaType = requestTypes.computeIfAbsent(parameter,
+                        p -> getJsonSerializationService().constructType(p.getGenericParameterType()));
+                // Reuse object which was already deserialized during request decryption
+                if (eciesObject.getRequestObject() != null && requestJavaType.equals(eciesObject.getRequestType())) {
+                    return eciesObject.getRequestObject();
+                }
                 try {
-                    // Object is deserialized from JSON based on request type
-                    final TypeFactory typeFactory = objectMapper.getTypeFactory();
-                    final JavaType requestJavaType = typeFactory.constructType(requestType);
-                    return objectMapper.readValue(eciesObject.getDecryptedRequest(), requestJavaType);
+                    // Object is deserialized from JSON based on request type, only once per request
+                    final Object requestObject = getJsonSerializationService().readValue(eciesObject.getDecryptedRequest(), requestJavaType);
+                    eciesObject.setRequestObject(requestObject);
+                    eciesObject.setRequestType(requestJavaType);
+                    return requestObject;
                 } catch (IOException ex) {
                     logger.warn("Invalid request, error: {}", ex.getMessage());
                     logger.debug("Error details", ex);
@@ -126,4 +147,17 @@ public class PowerAuthEncryptionArgumentResolver implements HandlerMethodArgumen
         return true;
     }
 
+    /**
+     * Get JSON serialization service, the default service is created only in case no service was set.
+     * @return JSON serialization service.
+     */
+    private JsonSerializationService getJsonSerializationService() {
+        JsonSerializationService service = jsonSerializationService;
+        if (service == null) {
+            service = new JsonSerializationService();
+            jsonSerializationService = service;
+        }
+        return service;
+    }
+
 }
@@ -0,0 +1,400 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.annotation.support;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.wultra.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
+import com.wultra.security.powerauth.rest.api.spring.annotation.EncryptedRequestBody;
+import com.wultra.security.powerauth.rest.api.spring.annotation.PowerAuth;
+import com.wultra.security.powerauth.rest.api.spring.annotation.PowerAuthEncryption;
+import com.wultra.security.powerauth.rest.api.spring.annotation.PowerAuthToken;
+import com.wultra.security.powerauth.rest.api.spring.encryption.EncryptionScope;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.text.StringSubstitutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable security plan of a single handler method. The plan is compiled once per handler method
+ * from the PowerAuth annotations and the method parameters, so that the annotation interceptor does not
+ * need to inspect the annotations, scan the method parameters or parse the resource ID template on every
+ * request.
+ */
+final class PowerAuthHandlerSecurityPlan {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthHandlerSecurityPlan.class);
+
+    private static final String PLACEHOLDER_PREFIX = "${";
+    private static final String PLACEHOLDER_SUFFIX = "}";
+
+    /**
+     * Plan of a handler method without any PowerAuth annotation.
+     */
+    static final PowerAuthHandlerSecurityPlan EMPTY = new PowerAuthHandlerSecurityPlan(
+            null, null, null, Object.class);
+
+    private final PowerAuthSignaturePlan signaturePlan;
+    private final PowerAuthTokenPlan tokenPlan;
+    private final EncryptionScope encryptionScope;
+    private final Type encryptedRequestType;
+
+    private PowerAuthHandlerSecurityPlan(PowerAuthSignaturePlan signaturePlan, PowerAuthTokenPlan tokenPlan,
+                                         EncryptionScope encryptionScope, Type encryptedRequestType) {
+        this.signaturePlan = signaturePlan;
+        this.tokenPlan = tokenPlan;
+        this.encryptionScope = encryptionScope;
+        this.encryptedRequestType = encryptedRequestType;
+    }
+
+    /**
+     * Compile security plan for given handler method.
+     *
+     * @param handlerMethod Handler method.
+     * @return Compiled security plan.
+     */
+    static PowerAuthHandlerSecurityPlan compile(HandlerMethod handlerMethod) {
+        PowerAuth powerAuthSignatureAnnotation = handlerMethod.getMethodAnnotation(PowerAuth.class);
+        PowerAuthToken powerAuthTokenAnnotation = handlerMethod.getMethodAnnotation(PowerAuthToken.class);
+        final PowerAuthEncryption powerAuthEncryptionAnnotation = handlerMethod.getMethodAnnotation(PowerAuthEncryption.class);
+
+        // Check that either signature or token annotation is active
+        if (powerAuthSignatureAnnotation != null && powerAuthTokenAnnotation != null) {
+            logger.warn("You cannot use both @PowerAuth and @PowerAuthToken on same handler method. We are removing both. Handler method: {}", handlerMethod);
+            powerAuthSignatureAnnotation = null;
+            powerAuthTokenAnnotation = null;
+        }
+
+        if (powerAuthSignatureAnnotation == null && powerAuthTokenAnnotation == null && powerAuthEncryptionAnnotation == null) {
+            return EMPTY;
+        }
+
+        final MethodParameter[] methodParameters = handlerMethod.getMethodParameters();
+
+        final PowerAuthSignaturePlan signaturePlan = powerAuthSignatureAnnotation == null ? null : new PowerAuthSignaturePlan(
+                ResourceIdTemplate.compile(powerAuthSignatureAnnotation.resourceId(), methodParameters),
+                toSignatureTypes(powerAuthSignatureAnnotation.signatureType()));
+
+        final PowerAuthTokenPlan tokenPlan = powerAuthTokenAnnotation == null ? null : new PowerAuthTokenPlan(
+                toSignatureTypes(powerAuthTokenAnnotation.signatureType()));
+
+        final EncryptionScope encryptionScope = powerAuthEncryptionAnnotation == null ? null : powerAuthEncryptionAnnotation.scope();
+        final Type encryptedRequestType = powerAuthEncryptionAnnotation == null ? Object.class : resolveEncryptedRequestType(methodParameters);
+
+        return new PowerAuthHandlerSecurityPlan(signaturePlan, tokenPlan, encryptionScope, encryptedRequestType);
+    }
+
+    /**
+     * Get signature plan, present in case the handler method is annotated with @PowerAuth annotation.
+     * @return Signature plan or null.
+     */
+    PowerAuthSignaturePlan getSignaturePlan() {
+        return signaturePlan;
+    }
+
+    /**
+     * Get token plan, present in case the handler method is annotated with @PowerAuthToken annotation.
+     * @return Token plan or null.
+     */
+    PowerAuthTokenPlan getTokenPlan() {
+        return tokenPlan;
+    }
+
+    /**
+     * Get encryption scope, present in case the handler method is annotated with @PowerAuthEncryption annotation.
+     * @return Encryption scope or null.
+     */
+    EncryptionScope getEncryptionScope() {
+        return encryptionScope;
+    }
+
+    /**
+     * Get type of the request object annotated by the @EncryptedRequestBody annotation.
+     * @return Type of the encrypted request object.
+     */
+    Type getEncryptedRequestType() {
+        return encryptedRequestType;
+    }
+
+    /**
+     * Resolve type of request object which is annotated by the @EncryptedRequestBody annotation.
+     * In case such parameter is missing the Object.class type is returned. The type is resolved into
+     * Jackson type up-front, with the exception of byte[] that is passed through without deserialization.
+     *
+     * @param methodParameters Handler method parameters.
+     * @return Resolved type of request object.
+     */
+    private static Type resolveEncryptedRequestType(MethodParameter[] methodParameters) {
+        for (MethodParameter parameter : methodParameters) {
+            if (parameter.hasParameterAnnotation(EncryptedRequestBody.class)) {
+                final Type genericType = parameter.getGenericParameterType();
+                if (byte[].class.equals(genericType)) {
+                    return genericType;
+                }
+                return TypeFactory.defaultInstance().constructType(genericType);
+            }
+        }
+        return Object.class;
+    }
+
+    private static List<PowerAuthSignatureTypes> toSignatureTypes(PowerAuthSignatureTypes[] signatureTypes) {
+        // Keep the declared order, it is used for the signature type conversion of the server request
+        return Collections.unmodifiableList(Arrays.asList(signatureTypes.clone()));
+    }
+
+    /**
+     * Plan of the @PowerAuth annotation.
+     */
+    static final class PowerAuthSignaturePlan {
+
+        private final ResourceIdTemplate resourceIdTemplate;
+        private final List<PowerAuthSignatureTypes> signatureTypes;
+
+        private PowerAuthSignaturePlan(ResourceIdTemplate resourceIdTemplate, List<PowerAuthSignatureTypes> signatureTypes) {
+            this.resourceIdTemplate = resourceIdTemplate;
+            this.signatureTypes = signatureTypes;
+        }
+
+        /**
+         * Expand resource ID for the current request.
+         * @param request HTTP servlet request.
+         * @return Resource ID with substituted placeholders.
+         */
+        String expandResourceId(HttpServletRequest request) {
+            return resourceIdTemplate.expand(request);
+        }
+
+        /**
+         * Get allowed signature types in the declared order.
+         * @return Allowed signature types.
+         */
+        List<PowerAuthSignatureTypes> getSignatureTypes() {
+            return signatureTypes;
+        }
+    }
+
+    /**
+     * Plan of the @PowerAuthToken annotation.
+     */
+    static final class PowerAuthTokenPlan {
+
+        private final List<PowerAuthSignatureTypes> signatureTypes;
+
+        private PowerAuthTokenPlan(List<PowerAuthSignatureTypes> signatureTypes) {
+            this.signatureTypes = signatureTypes;
+        }
+
+        /**
+         * Get allowed signature types in the declared order.
+         * @return Allowed signature types.
+         */
+        List<PowerAuthSignatureTypes> getSignatureTypes() {
+            return signatureTypes;
+        }
+    }
+
+    /**
+     * Pre-parsed resource ID template. Placeholders (marked via "${placeholder}") are bound to the names
+     * of the handler method parameters annotated via @RequestParam or @PathVariable annotations.<br>
+     * <br>
+     * <b>
+     *     Note: In case both @RequestParam and @PathVariable with the same name exist, the value of @RequestParam
+     *     takes precedence. This is because @RequestParam usually maps to the HTTP GET query parameter that cannot
+     *     be easily changed in existing API, while @PathVariable is just a URL placeholder that can be renamed in
+     *     the code with no impact on functionality.
+     * </b>
+     * <br>
+     * Templates using escaped placeholders or default values, as well as parameter values that contain
+     * placeholders, are expanded by {@link StringSubstitutor} to keep the original expansion semantics.
+     */
+    static final class ResourceIdTemplate {
+
+        private final String template;
+        private final boolean constant;
+        private final boolean substitutorRequired;
+        // Literal segments, there is always one more literal than slots
+        private final String[] literals;
+        private final Slot[] slots;
+        // Bound parameter names, used for the fallback expansion
+        private final Set<String> requestParamNames;
+        private final Set<String> pathVariableNames;
+
+        private ResourceIdTemplate(String template, boolean constant, boolean substitutorRequired, String[] literals,
+                                   Slot[] slots, Set<String> requestParamNames, Set<String> pathVariableNames) {
+            this.template = template;
+            this.constant = constant;
+            this.substitutorRequired = substitutorRequired;
+            this.literals = literals;
+            this.slots = slots;
+            this.requestParamNames = requestParamNames;
+            this.pathVariableNames = pathVariableNames;
+        }
+
+        static ResourceIdTemplate compile(String template, MethodParameter[] methodParameters) {
+            final Set<String> requestParamNames = new LinkedHashSet<>();
+            final Set<String> pathVariableNames = new LinkedHashSet<>();
+            for (MethodParameter mp : methodParameters) {
+                final RequestParam requestParam = mp.getParameterAnnotation(RequestParam.class);
+                if (requestParam != null) {
+                    requestParamNames.add(requestParam.name());
+                } else {
+                    final PathVariable pathVariable = mp.getParameterAnnotation(PathVariable.class);
+                    if (pathVariable != null) {
+                        pathVariableNames.add(pathVariable.name());
+                    }
+                }
+            }
+
+            if (!template.contains(PLACEHOLDER_PREFIX)) {
+                return new ResourceIdTemplate(template, true, false, null, null, requestParamNames, pathVariableNames);
+            }
+
+            final List<String> literals = new ArrayList<>();
+            final List<Slot> slots = new ArrayList<>();
+            int position = 0;
+            boolean substitutorRequired = false;
+            while (position < template.length()) {
+                final int start = template.indexOf(PLACEHOLDER_PREFIX, position);
+                if (start < 0) {
+                    break;
+                }
+                final int end = template.indexOf(PLACEHOLDER_SUFFIX, start + PLACEHOLDER_PREFIX.length());
+                if (end < 0) {
+                    break;
+                }
+                final String name = template.substring(start + PLACEHOLDER_PREFIX.length(), end);
+                if ((start > 0 && template.charAt(start - 1) == '$') || name.contains("$") || name.contains(":-")) {
+                    // Escapes, nested placeholders and default values are left to StringSubstitutor
+                    substitutorRequired = true;
+                    break;
+                }
+                literals.add(template.substring(position, start));
+                slots.add(new Slot(name, requestParamNames.contains(name), pathVariableNames.contains(name)));
+                position = end + PLACEHOLDER_SUFFIX.length();
+            }
+            if (substitutorRequired) {
+                return new ResourceIdTemplate(template, false, true, null, null, requestParamNames, pathVariableNames);
+            }
+            literals.add(template.substring(position));
+            return new ResourceIdTemplate(template, false, false,
+                    literals.toArray(new String[0]), slots.toArray(new Slot[0]), requestParamNames, pathVariableNames);
+        }
+
+        /**
+         * Expand the template for the current request.
+         * @param request HTTP servlet request.
+         * @return Resource ID with substituted placeholders.
+         */
+        String expand(HttpServletRequest request) {
+            if (constant) {
+                return template;
+            }
+            if (substitutorRequired) {
+                return expandWithSubstitutor(request);
+            }
+            final Map<String, String> pathVariableMap = getPathVariables(request);
+            final String[] values = new String[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                final String value = slots[i].resolve(request, pathVariableMap);
+                if (value != null && value.contains(PLACEHOLDER_PREFIX)) {
+                    // Values containing placeholders are expanded recursively by StringSubstitutor
+                    return expandWithSubstitutor(request);
+                }
+                values[i] = value;
+            }
+            final StringBuilder sb = new StringBuilder(template.length() + 32);
+            for (int i = 0; i < slots.length; i++) {
+                sb.append(literals[i]);
+                if (values[i] != null) {
+                    sb.append(values[i]);
+                } else {
+                    // Unresolved placeholders are kept intact
+                    sb.append(PLACEHOLDER_PREFIX).append(slots[i].name).append(PLACEHOLDER_SUFFIX);
+                }
+            }
+            sb.append(literals[slots.length]);
+            return sb.toString();
+        }
+
+        private String expandWithSubstitutor(HttpServletRequest request) {
+            final Map<String, String> parameters = new TreeMap<>();
+            final Map<String, String> pathVariableMap = getPathVariables(request);
+            if (pathVariableMap != null) {
+                for (String name : pathVariableNames) {
+                    final String value = pathVariableMap.get(name);
+                    if (value != null) {
+                        parameters.put(name, value);
+                    }
+                }
+            }
+            // @RequestParam values overwrite @PathVariable values in case of a name conflict
+            for (String name : requestParamNames) {
+                final String value = request.getParameter(name);
+                if (value != null) {
+                    parameters.put(name, value);
+                }
+            }
+            final StringSubstitutor sub = new StringSubstitutor(parameters);
+            return sub.replace(template);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, String> getPathVariables(HttpServletRequest request) {
+            return (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        }
+
+        /**
+         * Placeholder slot bound to the handler method parameters.
+         * @param name Placeholder name.
+         * @param requestParam Whether the placeholder is bound to @RequestParam parameter.
+         * @param pathVariable Whether the placeholder is bound to @PathVariable parameter.
+         */
+        private record Slot(String name, boolean requestParam, boolean pathVariable) {
+
+            String resolve(HttpServletRequest request, Map<String, String> pathVariableMap) {
+                if (requestParam) {
+                    final String value = request.getParameter(name);
+                    if (value != null) {
+                        return value;
+                    }
+                }
+                if (pathVariable && pathVariableMap != null) {
+                    return pathVariableMap.get(name);
+                }
+                return null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of activation flag writes.
+ */
+@Component
+@ConfigurationProperties(prefix = "powerauth.service.activation-flags")
+@Getter
+@Setter
+public class PowerAuthActivationFlagsConfigurationProperties {
+
+    /**
+     * Buffering of activation flag writes.
+     */
+    private Buffer buffer = new Buffer();
+
+    /**
+     * Buffer configuration.
+     */
+    @Getter
+    @Setter
+    public static class Buffer {
+
+        /**
+         * Whether activation flags are buffered and written to PowerAuth server in the background.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Interval of writing buffered activation flags.
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /**
+         * Maximum number of activations with buffered flags, flags above the limit are written synchronously.
+         */
+        private int maximumPendingActivations = 1000;
+
+        /**
+         * Number of failed attempts to write buffered flags of an activation after which the failures are logged
+         * as errors. The flags are never discarded, the writes are retried until they succeed.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Maximum delay between retries of failed writes, the delay starts at the flush interval and is doubled
+         * with each failed attempt.
+         */
+        private Duration maxRetryBackoff = Duration.ofMinutes(1);
+
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the PowerAuth signature and token authentication.
+ */
+@Component
+@ConfigurationProperties(prefix = "powerauth.service.authentication")
+@Getter
+@Setter
+public class PowerAuthAuthenticationConfigurationProperties {
+
+    /**
+     * Coalescing of identical concurrent token validations.
+     */
+    private Coalescing tokenCoalescing = new Coalescing();
+
+    /**
+     * Cache of failed authentications of removed activations.
+     */
+    private NegativeCache negativeCache = new NegativeCache();
+
+    /**
+     * Logging of failed authentications in the exception handler.
+     */
+    private FailureLogging failureLogging = new FailureLogging();
+
+    /**
+     * Maximum time to wait for a token validation running concurrently with the request decryption, the request
+     * fails the authentication in case the validation does not complete in time.
+     */
+    private Duration asyncValidationTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Coalescing configuration.
+     */
+    @Getter
+    @Setter
+    public static class Coalescing {
+
+        /**
+         * Whether concurrent validations of the same token header share a single PowerAuth server call. Note that
+         * this weakens the replay protection, an identical header received while its validation is in progress
+         * is authenticated without the nonce check of PowerAuth server.
+         */
+        private boolean enabled = false;
+
+    }
+
+    /**
+     * Negative cache configuration.
+     */
+    @Getter
+    @Setter
+    public static class NegativeCache {
+
+        /**
+         * Whether failed authentications of removed activations are cached.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Time to live of the cached failed authentications.
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * Maximum number of cached failed authentications, for signatures and tokens each.
+         */
+        private long maximumSize = 10_000;
+
+    }
+
+    /**
+     * Failure logging configuration.
+     */
+    @Getter
+    @Setter
+    public static class FailureLogging {
+
+        /**
+         * Maximum number of failed authentications logged per second, the remaining ones are only counted
+         * and the count is logged in the next second. Negative value disables the limit.
+         */
+        private int maximumPerSecond = 10;
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.configuration;
+
+import com.wultra.security.powerauth.rest.api.spring.metrics.MicrometerPowerAuthClientMetrics;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of PowerAuth server call metrics, active in case Micrometer is available on the classpath.
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class PowerAuthMetricsConfiguration {
+
+    /**
+     * Metrics of PowerAuth server calls recorded by the meter registry, in case a meter registry bean exists.
+     * @param meterRegistryProvider Meter registry provider.
+     * @return PowerAuth server call metrics.
+     */
+    @Bean
+    public PowerAuthClientMetrics powerAuthClientMetrics(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new MicrometerPowerAuthClientMetrics(meterRegistryProvider);
+    }
+
+}
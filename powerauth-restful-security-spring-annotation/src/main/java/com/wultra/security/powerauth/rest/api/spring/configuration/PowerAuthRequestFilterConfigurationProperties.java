@@ -0,0 +1,50 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the PowerAuth request filters buffering the request body.
+ */
+@Component
+@ConfigurationProperties(prefix = "powerauth.service.request-filter")
+@Getter
+@Setter
+public class PowerAuthRequestFilterConfigurationProperties {
+
+    /**
+     * Maximum request body size in bytes, requests with larger body are rejected with HTTP status 413 (Payload Too Large).
+     * Negative value disables the limit.
+     */
+    private long maxRequestBodySize = -1;
+
+    /**
+     * Maximum time to read the request body asynchronously in {@code PowerAuthAsyncRequestFilter}, requests
+     * exceeding the timeout are rejected with HTTP status 408 (Request Timeout).
+     */
+    private Duration asyncTimeout = Duration.ofSeconds(60);
+
+}
@@ -81,4 +81,16 @@ public class ActivationContextConverter {
         return destination;
     }
 
+    /**
+     * Create activation context backed by activation status response. The activation status, activation flags
+     * and timestamps are converted on first access, which makes the context cheap in case only some attributes
+     * are used.
+     *
+     * @param source Activation status response.
+     * @return Activation context.
+     */
+    public ActivationContext fromActivationDetailResponseLazily(GetActivationStatusResponse source) {
+        return new LazyActivationContext(source, activationStatusConverter);
+    }
+
 }
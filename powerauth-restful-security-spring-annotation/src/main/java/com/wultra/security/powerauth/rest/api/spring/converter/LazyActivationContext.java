@@ -0,0 +1,145 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.converter;
+
+import com.wultra.security.powerauth.client.model.response.GetActivationStatusResponse;
+import com.wultra.security.powerauth.rest.api.spring.model.ActivationContext;
+import com.wultra.security.powerauth.rest.api.spring.model.ActivationStatus;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Activation context backed by an activation status response. Simple attributes are copied when the context
+ * is created, the activation status, activation flags and timestamps are converted on first access.
+ * Attributes which are set explicitly are never overwritten by the conversion. The context is not thread-safe.
+ */
+final class LazyActivationContext extends ActivationContext {
+
+    private static final int ACTIVATION_STATUS = 1;
+    private static final int ACTIVATION_FLAGS = 1 << 1;
+    private static final int TIMESTAMP_CREATED = 1 << 2;
+    private static final int TIMESTAMP_LAST_USED = 1 << 3;
+    private static final int TIMESTAMP_LAST_CHANGE = 1 << 4;
+
+    private final GetActivationStatusResponse source;
+    private final ActivationStatusConverter activationStatusConverter;
+
+    // Attributes which were already converted from the source or set explicitly
+    private int materialized;
+
+    LazyActivationContext(GetActivationStatusResponse source, ActivationStatusConverter activationStatusConverter) {
+        this.source = source;
+        this.activationStatusConverter = activationStatusConverter;
+        super.setActivationId(source.getActivationId());
+        super.setActivationName(source.getActivationName());
+        super.setBlockedReason(source.getBlockedReason());
+        super.setApplicationId(source.getApplicationId());
+        super.setUserId(source.getUserId());
+        super.setVersion(source.getVersion());
+        super.setPlatform(source.getPlatform());
+        super.setDeviceInfo(source.getDeviceInfo());
+        super.setExtras(source.getExtras());
+    }
+
+    @Override
+    public List<String> getActivationFlags() {
+        final List<String> activationFlags = super.getActivationFlags();
+        if (materialize(ACTIVATION_FLAGS) && source.getActivationFlags() != null) {
+            activationFlags.addAll(source.getActivationFlags());
+        }
+        return activationFlags;
+    }
+
+    @Override
+    public ActivationStatus getActivationStatus() {
+        if (materialize(ACTIVATION_STATUS)) {
+            super.setActivationStatus(activationStatusConverter.convertFrom(source.getActivationStatus()));
+        }
+        return super.getActivationStatus();
+    }
+
+    @Override
+    public void setActivationStatus(ActivationStatus activationStatus) {
+        materialized |= ACTIVATION_STATUS;
+        super.setActivationStatus(activationStatus);
+    }
+
+    @Override
+    public Instant getTimestampCreated() {
+        if (materialize(TIMESTAMP_CREATED)) {
+            super.setTimestampCreated(toInstant(source.getTimestampCreated()));
+        }
+        return super.getTimestampCreated();
+    }
+
+    @Override
+    public void setTimestampCreated(Instant timestampCreated) {
+        materialized |= TIMESTAMP_CREATED;
+        super.setTimestampCreated(timestampCreated);
+    }
+
+    @Override
+    public Instant getTimestampLastUsed() {
+        if (materialize(TIMESTAMP_LAST_USED)) {
+            super.setTimestampLastUsed(toInstant(source.getTimestampLastUsed()));
+        }
+        return super.getTimestampLastUsed();
+    }
+
+    @Override
+    public void setTimestampLastUsed(Instant timestampLastUsed) {
+        materialized |= TIMESTAMP_LAST_USED;
+        super.setTimestampLastUsed(timestampLastUsed);
+    }
+
+    @Override
+    public Instant getTimestampLastChange() {
+        if (materialize(TIMESTAMP_LAST_CHANGE)) {
+            super.setTimestampLastChange(toInstant(source.getTimestampLastChange()));
+        }
+        return super.getTimestampLastChange();
+    }
+
+    @Override
+    public void setTimestampLastChange(Instant timestampLastChange) {
+        materialized |= TIMESTAMP_LAST_CHANGE;
+        super.setTimestampLastChange(timestampLastChange);
+    }
+
+    /**
+     * Mark the attribute as materialized.
+     * @param attribute Attribute bit.
+     * @return True in case the attribute has to be converted from the source, false in case it was already materialized.
+     */
+    private boolean materialize(int attribute) {
+        if ((materialized & attribute) != 0) {
+            return false;
+        }
+        materialized |= attribute;
+        return true;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+}
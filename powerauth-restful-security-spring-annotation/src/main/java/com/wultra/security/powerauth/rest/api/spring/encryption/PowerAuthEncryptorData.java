@@ -20,6 +20,7 @@
 
 package com.wultra.security.powerauth.rest.api.spring.encryption;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.wultra.security.powerauth.crypto.lib.encryptor.ServerEncryptor;
 import com.wultra.security.powerauth.crypto.lib.encryptor.model.EncryptedRequest;
 import com.wultra.security.powerauth.crypto.lib.encryptor.model.EncryptorId;
@@ -53,6 +54,10 @@ public class PowerAuthEncryptorData {
      * Request object
      */
     private Object requestObject;
+    /**
+     * Type of the request object, null in case request object was not deserialized from JSON.
+     */
+    private JavaType requestType;
 
     /**
      * Initialize encryption object from either encryption or signature HTTP header.
@@ -19,9 +19,9 @@
  */
 package com.wultra.security.powerauth.rest.api.spring.entrypoint;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wultra.core.rest.model.base.entity.Error;
-import com.wultra.core.rest.model.base.response.ErrorResponse;
+import com.wultra.security.powerauth.rest.api.spring.service.ErrorResponseSerializationService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Service;
@@ -39,14 +39,34 @@ import java.io.IOException;
 @Service
 public class PowerAuthApiAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    private static final String ERROR_MESSAGE = "POWER_AUTH_SIGNATURE_INVALID";
+
+    // The error response is constant, it is serialized once and written as is
+    private volatile byte[] errorResponseBody;
+
+    /**
+     * Set error response serialization service via setter injection.
+     * @param errorResponseSerializationService Error response serialization service.
+     */
+    @Autowired(required = false)
+    public void setErrorResponseSerializationService(ErrorResponseSerializationService errorResponseSerializationService) {
+        this.errorResponseBody = errorResponseSerializationService.getErrorResponseBody(Error.Code.ERROR_GENERIC, ERROR_MESSAGE);
+    }
+
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response,
                          AuthenticationException authException) throws IOException {
-        ErrorResponse errorResponse = new ErrorResponse(Error.Code.ERROR_GENERIC, "POWER_AUTH_SIGNATURE_INVALID");
+        byte[] body = errorResponseBody;
+        if (body == null) {
+            // No serialization service was injected, use the default serialization
+            body = new ErrorResponseSerializationService().getErrorResponseBody(Error.Code.ERROR_GENERIC, ERROR_MESSAGE);
+            errorResponseBody = body;
+        }
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.getOutputStream().println(new ObjectMapper().writeValueAsString(errorResponse));
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
         response.getOutputStream().flush();
     }
 
@@ -58,6 +58,16 @@ public class PowerAuthAuthenticationException extends Exception {
         super(cause);
     }
 
+    /**
+     * Constructor with a custom error message and optionally disabled stack trace. Exceptions created without
+     * stack trace have suppression disabled as well, so that a single instance can be safely rethrown.
+     * @param message Error message
+     * @param writableStackTrace Whether the stack trace is writable.
+     */
+    protected PowerAuthAuthenticationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
     /**
      * Get the default error code, used for example in REST response.
      * @return Default error code.
@@ -37,6 +37,8 @@ public class PowerAuthSignatureTypeInvalidException extends PowerAuthAuthenticat
     private static final String DEFAULT_CODE = "ERR_AUTHENTICATION";
     private static final String DEFAULT_ERROR = "POWER_AUTH_SIGNATURE_TYPE_INVALID";
 
+    private static final PowerAuthSignatureTypeInvalidException STACKLESS = new PowerAuthSignatureTypeInvalidException(DEFAULT_ERROR, false);
+
     /**
      * Default constructor
      */
@@ -60,6 +62,24 @@ public class PowerAuthSignatureTypeInvalidException extends PowerAuthAuthenticat
         super(cause);
     }
 
+    /**
+     * Constructor with a custom error message and optionally disabled stack trace.
+     * @param message Error message
+     * @param writableStackTrace Whether the stack trace is writable.
+     */
+    protected PowerAuthSignatureTypeInvalidException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
+
+    /**
+     * Get a shared exception instance without stack trace, used on the hot path of rejected requests
+     * in case of a invalid signature type.
+     * @return Shared exception instance without stack trace.
+     */
+    public static PowerAuthSignatureTypeInvalidException stackless() {
+        return STACKLESS;
+    }
+
     /**
      * Get the default error code, used for example in REST response.
      * @return Default error code.
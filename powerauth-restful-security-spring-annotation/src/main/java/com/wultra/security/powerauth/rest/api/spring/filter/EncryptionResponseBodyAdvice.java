@@ -19,12 +19,12 @@
  */
 package com.wultra.security.powerauth.rest.api.spring.filter;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wultra.security.powerauth.crypto.lib.encryptor.model.EncryptedResponse;
 import com.wultra.security.powerauth.rest.api.model.response.EciesEncryptedResponse;
 import com.wultra.security.powerauth.rest.api.spring.annotation.PowerAuthEncryption;
 import com.wultra.security.powerauth.rest.api.spring.encryption.PowerAuthEncryptorData;
 import com.wultra.security.powerauth.rest.api.spring.model.PowerAuthRequestObjects;
+import com.wultra.security.powerauth.rest.api.spring.service.JsonSerializationService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,7 +49,6 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -62,10 +61,10 @@ public class EncryptionResponseBodyAdvice implements ResponseBodyAdvice<Object>
 
     private static final Logger logger = LoggerFactory.getLogger(EncryptionResponseBodyAdvice.class);
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
     private RequestMappingHandlerAdapter requestMappingHandlerAdapter;
 
+    private JsonSerializationService jsonSerializationService;
+
     /**
      * Set request mapping handler adapter via setter injection. Note: Autowiring in constructor cannot be
      * used due to circular dependency.
@@ -76,6 +75,15 @@ public class EncryptionResponseBodyAdvice implements ResponseBodyAdvice<Object>
         this.requestMappingHandlerAdapter = requestMappingHandlerAdapter;
     }
 
+    /**
+     * Set JSON serialization service shared by PowerAuth components via setter injection.
+     * @param jsonSerializationService JSON serialization service.
+     */
+    @Autowired
+    public void setJsonSerializationService(JsonSerializationService jsonSerializationService) {
+        this.jsonSerializationService = jsonSerializationService;
+    }
+
     /**
      * Whether method supports encryption. Standard implementation supports conversion to JSON, String or byte[].
      *
@@ -129,12 +137,12 @@ public class EncryptionResponseBodyAdvice implements ResponseBodyAdvice<Object>
             if (converterClass.isAssignableFrom(MappingJackson2HttpMessageConverter.class)) {
                 // Object conversion is done automatically using MappingJackson2HttpMessageConverter
                 return encryptedResponseObject;
-            } else if (converterClass.isAssignableFrom(StringHttpMessageConverter.class)) {
-                // Conversion to byte[] is done using first applicable configured HTTP message converter, corresponding String is returned
-                return new String(convertEncryptedResponse(encryptedResponseObject, mediaType), StandardCharsets.UTF_8);
             } else {
-                // Conversion to byte[] is done using first applicable configured HTTP message converter
-                return convertEncryptedResponse(encryptedResponseObject, mediaType);
+                // The String or byte[] converter cannot write the encrypted response object, the response is written
+                // directly to the HTTP response by the first applicable configured HTTP message converter, there is
+                // nothing left to be written by the selected converter
+                writeEncryptedResponse(encryptedResponseObject, mediaType, serverHttpResponse);
+                return null;
             }
         } catch (Exception ex) {
             logger.warn("Encryption failed, error: {}", ex.getMessage());
@@ -155,55 +163,61 @@ public class EncryptionResponseBodyAdvice implements ResponseBodyAdvice<Object>
             // Response data is raw byte[], data conversion is not required
             return (byte[]) response;
         } else {
-            // Convert response object to byte[] using ObjectMapper
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            objectMapper.writeValue(baos, response);
-            return baos.toByteArray();
+            // Convert response object to byte[] using cached ObjectWriter, which uses recycled buffers for serialization
+            return jsonSerializationService.writeValueAsBytes(response);
         }
     }
 
     /**
-     * Convert encrypted response to byte[] using first applicable HTTP message converter.
+     * Write encrypted response directly to the HTTP response using first applicable HTTP message converter.
+     * The response is serialized into memory first, so that a serialization failure does not leave a committed
+     * response with a truncated body.
      *
-     * @param encryptedResponse Encrypted response to convert.
+     * @param encryptedResponse Encrypted response to write.
      * @param mediaType Selected HTTP response media type.
-     * @return Converted encrypted response.
+     * @param serverHttpResponse HTTP response.
      * @throws IOException In case serialization fails.
      */
     @SuppressWarnings("unchecked")
-    private byte[] convertEncryptedResponse(EciesEncryptedResponse encryptedResponse, MediaType mediaType) throws IOException {
+    private void writeEncryptedResponse(EciesEncryptedResponse encryptedResponse, MediaType mediaType, ServerHttpResponse serverHttpResponse) throws IOException {
         final List<HttpMessageConverter<?>> httpMessageConverters = requestMappingHandlerAdapter.getMessageConverters();
         // Find the first applicable HTTP message converter for conversion
         for (HttpMessageConverter<?> converter: httpMessageConverters) {
             if (converter.canWrite(encryptedResponse.getClass(), mediaType)) {
-                final BasicHttpOutputMessage httpOutputMessage = new BasicHttpOutputMessage();
-                ((HttpMessageConverter<EciesEncryptedResponse>) converter).write(encryptedResponse, mediaType, httpOutputMessage);
-                return httpOutputMessage.getBodyBytes();
+                final BufferedOutputMessage outputMessage = new BufferedOutputMessage();
+                ((HttpMessageConverter<EciesEncryptedResponse>) converter).write(encryptedResponse, mediaType, outputMessage);
+                final HttpHeaders headers = serverHttpResponse.getHeaders();
+                if (outputMessage.getHeaders().getContentType() != null) {
+                    headers.setContentType(outputMessage.getHeaders().getContentType());
+                }
+                headers.setContentLength(outputMessage.body.size());
+                outputMessage.body.writeTo(serverHttpResponse.getBody());
+                serverHttpResponse.flush();
+                return;
             }
         }
         // Could not find any applicable converter, Spring is configured incorrectly
         throw new IOException("Response message conversion failed, no applicable HTTP message converter found");
     }
 
-    private static class BasicHttpOutputMessage implements HttpOutputMessage {
+    /**
+     * HTTP output message collecting the body in memory.
+     */
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
 
-        private final ByteArrayOutputStream os = new ByteArrayOutputStream();
-        private final HttpHeaders httpHeaders = new HttpHeaders();
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
 
         @Override
         @NonNull
         public OutputStream getBody() {
-            return os;
-        }
-
-        public byte[] getBodyBytes() {
-            return os.toByteArray();
+            return body;
         }
 
         @Override
         @NonNull
         public HttpHeaders getHeaders() {
-            return httpHeaders;
+            return headers;
         }
     }
 
@@ -0,0 +1,242 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.filter;
+
+import com.wultra.security.powerauth.rest.api.spring.configuration.PowerAuthRequestFilterConfigurationProperties;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Request filter that reads the request body using non-blocking servlet I/O, forwards it to the controller
+ * as a request attribute named "X-PowerAuth-Request-Body" and resets the stream.
+ * <p>
+ * The request body of requests with PowerAuth HTTP headers is read asynchronously, no container thread is
+ * used while waiting for the request data. Once the request body is read, the request is dispatched again
+ * with {@link jakarta.servlet.DispatcherType#ASYNC} dispatcher type to the rest of the filter chain and to
+ * the servlet. Requests without request body used for the signature validation and requests which do not
+ * support asynchronous processing are handled the same way as by {@link PowerAuthRequestFilter}.
+ * <p>
+ * Filters which follow this filter in the filter chain are invoked in the asynchronous dispatch, they need
+ * to be registered for the ASYNC dispatcher type. Note that {@link OncePerRequestFilter} subclasses skip
+ * the ASYNC dispatch by default, such filters must run before this filter. Register this filter as the last
+ * one, with asynchronous processing supported.
+ * <p>
+ * Reading of the request body is limited by a timeout, requests exceeding it are rejected with HTTP status
+ * 408 (Request Timeout), requests failing while the body is read are rejected with HTTP status 400 (Bad Request).
+ */
+public class PowerAuthAsyncRequestFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthAsyncRequestFilter.class);
+
+    private static final int READ_CHUNK_SIZE = 8192;
+    // Maximum buffer size allocated up-front based on the Content-Length header, before any data is read
+    private static final int MAX_INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private static final Duration DEFAULT_ASYNC_TIMEOUT = Duration.ofSeconds(60);
+
+    private final long maxRequestBodySize;
+    private final Duration asyncTimeout;
+
+    /**
+     * Filter constructor, the size of request body is not limited.
+     */
+    public PowerAuthAsyncRequestFilter() {
+        this(ResettableStreamHttpServletRequest.UNLIMITED_BODY_SIZE);
+    }
+
+    /**
+     * Filter constructor with limited request body size. Requests with larger body are rejected
+     * with HTTP status 413 (Payload Too Large).
+     * @param maxRequestBodySize Maximum request body size in bytes, use {@link ResettableStreamHttpServletRequest#UNLIMITED_BODY_SIZE} for no limit.
+     */
+    public PowerAuthAsyncRequestFilter(long maxRequestBodySize) {
+        this(maxRequestBodySize, DEFAULT_ASYNC_TIMEOUT);
+    }
+
+    /**
+     * Filter constructor with limited request body size and timeout of reading the request body.
+     * @param maxRequestBodySize Maximum request body size in bytes, use {@link ResettableStreamHttpServletRequest#UNLIMITED_BODY_SIZE} for no limit.
+     * @param asyncTimeout Maximum time to read the request body, requests exceeding it are rejected with HTTP status 408 (Request Timeout).
+     */
+    public PowerAuthAsyncRequestFilter(long maxRequestBodySize, Duration asyncTimeout) {
+        this.maxRequestBodySize = maxRequestBodySize;
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    /**
+     * Filter constructor using the request filter configuration properties.
+     * @param configurationProperties Request filter configuration properties.
+     */
+    public PowerAuthAsyncRequestFilter(PowerAuthRequestFilterConfigurationProperties configurationProperties) {
+        this(configurationProperties.getMaxRequestBodySize(), configurationProperties.getAsyncTimeout());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!request.isAsyncSupported() || !PowerAuthRequestFilterBase.isRequestBodyRequired(request) || request.getContentLengthLong() == 0) {
+            filterSynchronously(request, response, filterChain);
+            return;
+        }
+
+        final long contentLength = request.getContentLengthLong();
+        if (maxRequestBodySize >= 0 && contentLength > maxRequestBodySize) {
+            logger.warn("Request rejected, error: {}", new PowerAuthRequestBodyTooLargeException(maxRequestBodySize).getMessage());
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+
+        // The resettable request is dispatched once the request body is read
+        final ResettableStreamHttpServletRequest resettableRequest = new ResettableStreamHttpServletRequest(request, maxRequestBodySize);
+        final AsyncContext asyncContext = request.startAsync(resettableRequest, response);
+        asyncContext.setTimeout(asyncTimeout.toMillis());
+        final ServletInputStream inputStream = request.getInputStream();
+        final RequestBodyReadListener readListener = new RequestBodyReadListener(asyncContext, resettableRequest, inputStream, contentLength);
+        asyncContext.addListener(readListener);
+        inputStream.setReadListener(readListener);
+    }
+
+    private void filterSynchronously(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        final ResettableStreamHttpServletRequest resettableRequest;
+        try {
+            resettableRequest = PowerAuthRequestFilterBase.filterRequest(request, maxRequestBodySize);
+        } catch (PowerAuthRequestBodyTooLargeException ex) {
+            logger.warn("Request rejected, error: {}", ex.getMessage());
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        filterChain.doFilter(resettableRequest, response);
+    }
+
+    /**
+     * Read listener which buffers the request body and dispatches the request once the whole body is read.
+     * The listener also handles the timeout and errors of the asynchronous request processing.
+     */
+    private class RequestBodyReadListener implements ReadListener, AsyncListener {
+
+        private final AsyncContext asyncContext;
+        private final ResettableStreamHttpServletRequest resettableRequest;
+        private final ServletInputStream inputStream;
+        private final ByteArrayOutputStream buffer;
+        private final byte[] chunk = new byte[READ_CHUNK_SIZE];
+        // Set once the request is either dispatched or rejected, read and async callbacks may run on different threads
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        RequestBodyReadListener(AsyncContext asyncContext, ResettableStreamHttpServletRequest resettableRequest, ServletInputStream inputStream, long contentLength) {
+            this.asyncContext = asyncContext;
+            this.resettableRequest = resettableRequest;
+            this.inputStream = inputStream;
+            this.buffer = new ByteArrayOutputStream(contentLength > 0 ? (int) Math.min(contentLength, MAX_INITIAL_BUFFER_SIZE) : READ_CHUNK_SIZE);
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            while (!finished.get() && inputStream.isReady() && !inputStream.isFinished()) {
+                final int read = inputStream.read(chunk);
+                if (read == -1) {
+                    return;
+                }
+                if (maxRequestBodySize >= 0 && buffer.size() + (long) read > maxRequestBodySize) {
+                    if (finished.compareAndSet(false, true)) {
+                        logger.warn("Request rejected, error: {}", new PowerAuthRequestBodyTooLargeException(maxRequestBodySize).getMessage());
+                        sendErrorAndComplete(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                    }
+                    return;
+                }
+                buffer.write(chunk, 0, read);
+            }
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            resettableRequest.setRequestBody(buffer.toByteArray());
+            PowerAuthRequestFilterBase.storeRequestBody(resettableRequest);
+            // Continue processing of the resettable request in the asynchronous dispatch
+            asyncContext.dispatch();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            logger.warn("Request body reading failed, error: {}", t != null ? t.getMessage() : null);
+            logger.debug("Error details", t);
+            sendErrorAndComplete(HttpServletResponse.SC_BAD_REQUEST);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            logger.warn("Request rejected, request body was not read within: {}", asyncTimeout);
+            sendErrorAndComplete(HttpServletResponse.SC_REQUEST_TIMEOUT);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onError(event.getThrowable());
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Nothing to do, the request was dispatched or rejected
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Nothing to do, the listener is registered for the first asynchronous cycle only
+        }
+
+        private void sendErrorAndComplete(int status) {
+            try {
+                final HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+                if (!response.isCommitted()) {
+                    response.sendError(status);
+                }
+            } catch (IOException ex) {
+                logger.debug("Error response could not be sent", ex);
+            } finally {
+                asyncContext.complete();
+            }
+        }
+    }
+
+}
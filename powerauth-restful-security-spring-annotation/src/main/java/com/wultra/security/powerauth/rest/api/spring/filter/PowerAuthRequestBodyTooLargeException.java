@@ -0,0 +1,51 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.filter;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Exception raised in case the HTTP request body exceeds the configured maximum size.
+ */
+public class PowerAuthRequestBodyTooLargeException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 5473027851393482361L;
+
+    private final long maxRequestBodySize;
+
+    /**
+     * Constructor with the maximum request body size.
+     * @param maxRequestBodySize Maximum request body size in bytes.
+     */
+    public PowerAuthRequestBodyTooLargeException(long maxRequestBodySize) {
+        super("Request body exceeds maximum size of " + maxRequestBodySize + " bytes");
+        this.maxRequestBodySize = maxRequestBodySize;
+    }
+
+    /**
+     * Get the maximum request body size.
+     * @return Maximum request body size in bytes.
+     */
+    public long getMaxRequestBodySize() {
+        return maxRequestBodySize;
+    }
+}
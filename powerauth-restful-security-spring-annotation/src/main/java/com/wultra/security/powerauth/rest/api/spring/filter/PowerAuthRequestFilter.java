@@ -19,6 +19,9 @@
  */
 package com.wultra.security.powerauth.rest.api.spring.filter;
 
+import com.wultra.security.powerauth.rest.api.spring.configuration.PowerAuthRequestFilterConfigurationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -37,10 +40,46 @@ import java.io.IOException;
  */
 public class PowerAuthRequestFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthRequestFilter.class);
+
+    private final long maxRequestBodySize;
+
+    /**
+     * Filter constructor, the size of request body is not limited.
+     */
+    public PowerAuthRequestFilter() {
+        this(ResettableStreamHttpServletRequest.UNLIMITED_BODY_SIZE);
+    }
+
+    /**
+     * Filter constructor with limited request body size. Requests with larger body are rejected
+     * with HTTP status 413 (Payload Too Large).
+     * @param maxRequestBodySize Maximum request body size in bytes, use {@link ResettableStreamHttpServletRequest#UNLIMITED_BODY_SIZE} for no limit.
+     */
+    public PowerAuthRequestFilter(long maxRequestBodySize) {
+        this.maxRequestBodySize = maxRequestBodySize;
+    }
+
+    /**
+     * Filter constructor using the request filter configuration properties.
+     * @param configurationProperties Request filter configuration properties.
+     */
+    public PowerAuthRequestFilter(PowerAuthRequestFilterConfigurationProperties configurationProperties) {
+        this(configurationProperties.getMaxRequestBodySize());
+    }
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
-        super.doFilter(PowerAuthRequestFilterBase.filterRequest(request), response, filterChain);
+        final ResettableStreamHttpServletRequest resettableRequest;
+        try {
+            resettableRequest = PowerAuthRequestFilterBase.filterRequest(request, maxRequestBodySize);
+        } catch (PowerAuthRequestBodyTooLargeException ex) {
+            logger.warn("Request rejected, error: {}", ex.getMessage());
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        super.doFilter(resettableRequest, response, filterChain);
     }
 
 }
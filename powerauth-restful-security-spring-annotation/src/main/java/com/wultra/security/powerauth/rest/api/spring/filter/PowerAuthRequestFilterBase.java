@@ -47,20 +47,58 @@ public class PowerAuthRequestFilterBase {
      * @throws IOException In case request body extraction fails.
      */
     public static ResettableStreamHttpServletRequest filterRequest(HttpServletRequest httpRequest) throws IOException {
-        final ResettableStreamHttpServletRequest resettableRequest = new ResettableStreamHttpServletRequest(httpRequest);
+        return filterRequest(httpRequest, ResettableStreamHttpServletRequest.UNLIMITED_BODY_SIZE);
+    }
+
+    /**
+     * Extract request body from HTTP servlet request. Different logic is used for GET and for all other HTTP methods.
+     *
+     * @param httpRequest HTTP servlet request.
+     * @param maxRequestBodySize Maximum request body size in bytes, use {@link ResettableStreamHttpServletRequest#UNLIMITED_BODY_SIZE} for no limit.
+     * @return Resettable HTTP servlet request.
+     * @throws IOException In case request body extraction fails.
+     * @throws PowerAuthRequestBodyTooLargeException In case request body exceeds the maximum size.
+     */
+    public static ResettableStreamHttpServletRequest filterRequest(HttpServletRequest httpRequest, long maxRequestBodySize) throws IOException {
+        final ResettableStreamHttpServletRequest resettableRequest = new ResettableStreamHttpServletRequest(httpRequest, maxRequestBodySize);
+        storeRequestBody(resettableRequest);
+        return resettableRequest;
+    }
+
+    /**
+     * Check whether the request body needs to be read for the signature validation.
+     *
+     * @param httpRequest HTTP servlet request.
+     * @return Whether the request body is used for the signature validation.
+     */
+    static boolean isRequestBodyRequired(HttpServletRequest httpRequest) {
+        return !isPowerAuthHeaderMissing(httpRequest) && !httpRequest.getMethod().equalsIgnoreCase("GET");
+    }
+
+    private static boolean isPowerAuthHeaderMissing(HttpServletRequest httpRequest) {
+        return httpRequest.getHeader(PowerAuthSignatureHttpHeader.HEADER_NAME) == null && httpRequest.getHeader(PowerAuthEncryptionHttpHeader.HEADER_NAME) == null;
+    }
 
-        if (httpRequest.getHeader(PowerAuthSignatureHttpHeader.HEADER_NAME) == null && httpRequest.getHeader(PowerAuthEncryptionHttpHeader.HEADER_NAME) == null) {
+    /**
+     * Store request body in request attribute of the resettable request. In case the request body was already
+     * read, the buffered body is used.
+     *
+     * @param resettableRequest Resettable HTTP servlet request.
+     * @throws IOException In case request body extraction fails.
+     */
+    static void storeRequestBody(ResettableStreamHttpServletRequest resettableRequest) throws IOException {
+        if (isPowerAuthHeaderMissing(resettableRequest)) {
             // PowerAuth HTTP headers are not present, store empty request body in request attribute
             resettableRequest.setAttribute(
                     PowerAuthRequestObjects.REQUEST_BODY,
                     new PowerAuthRequestBody()
             );
-            return resettableRequest;
+            return;
         }
 
-        if (httpRequest.getMethod().equalsIgnoreCase("GET")) {
+        if (resettableRequest.getMethod().equalsIgnoreCase("GET")) {
             // Parse the query parameters
-            String queryString = httpRequest.getQueryString();
+            String queryString = resettableRequest.getQueryString();
 
             if (StringUtils.hasLength(queryString)) {
 
@@ -94,7 +132,7 @@ public class PowerAuthRequestFilterBase {
         } else { // ... handle POST, PUT, DELETE, ... method
 
             // Get the request body and pass it as the signature base string as the request attribute
-            final byte[] body = resettableRequest.getRequestBody();
+            final byte[] body = resettableRequest.getBufferedRequestBody();
             if (body != null) {
                 resettableRequest.setAttribute(
                         PowerAuthRequestObjects.REQUEST_BODY,
@@ -108,7 +146,6 @@ public class PowerAuthRequestFilterBase {
                 );
             }
         }
-        return resettableRequest;
     }
 
 }
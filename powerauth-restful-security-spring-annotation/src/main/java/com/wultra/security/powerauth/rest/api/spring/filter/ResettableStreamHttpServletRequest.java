@@ -26,16 +26,34 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
  * Resettable HTTP servlet request stream.
+ * <p>
+ * The request body is buffered once, the buffer is pre-sized using the Content-Length header of small request
+ * bodies, larger buffers grow as the data arrives, so that a client cannot force a large allocation by sending
+ * a forged Content-Length header.
+ * Optionally, the maximum size of the request body can be limited, larger request bodies are rejected with
+ * {@link PowerAuthRequestBodyTooLargeException} before they are read completely. The input stream and reader
+ * returned by the request read directly from the buffered body, without copying it.
  *
  * @author Petr Dvorak, petr@wultra.com
  *
  */
 public class ResettableStreamHttpServletRequest extends HttpServletRequestWrapper {
 
+    /**
+     * Value of maximum request body size which disables the limit.
+     */
+    public static final long UNLIMITED_BODY_SIZE = -1;
+
+    // Maximum buffer size allocated up-front based on the Content-Length header, before any data is read
+    private static final int MAX_PRESIZED_BUFFER_SIZE = 64 * 1024;
+
+    private final long maxRequestBodySize;
+
     private byte[] requestBody = new byte[0];
     private boolean bufferFilled = false;
 
@@ -46,13 +64,26 @@ public class ResettableStreamHttpServletRequest extends HttpServletRequestWrappe
      * @throws IllegalArgumentException if the request is null
      */
     public ResettableStreamHttpServletRequest(HttpServletRequest request) {
+        this(request, UNLIMITED_BODY_SIZE);
+    }
+
+    /**
+     * Constructs a request object wrapping the given request with limited request body size.
+     *
+     * @param request The request to wrap
+     * @param maxRequestBodySize Maximum request body size in bytes, use {@link #UNLIMITED_BODY_SIZE} for no limit.
+     * @throws IllegalArgumentException if the request is null
+     */
+    public ResettableStreamHttpServletRequest(HttpServletRequest request, long maxRequestBodySize) {
         super(request);
+        this.maxRequestBodySize = maxRequestBodySize;
     }
 
     /**
      * Get request body.
      * @return Bytes with the request body contents.
      * @throws IOException In case stream reading fails.
+     * @throws PowerAuthRequestBodyTooLargeException In case request body exceeds the maximum size.
      */
     public byte[] getRequestBody() throws IOException {
 
@@ -60,18 +91,36 @@ public class ResettableStreamHttpServletRequest extends HttpServletRequestWrappe
             return Arrays.copyOf(requestBody, requestBody.length);
         }
 
-        final InputStream inputStream = super.getInputStream();
-
-        requestBody = inputStream.readAllBytes();
+        fillBuffer();
 
-        bufferFilled = true;
+        return requestBody;
+    }
 
+    /**
+     * Get request body buffered by this request, without copying it.
+     * @return Bytes with the request body contents.
+     * @throws IOException In case stream reading fails.
+     */
+    byte[] getBufferedRequestBody() throws IOException {
+        fillBuffer();
         return requestBody;
     }
 
+    /**
+     * Get read-only view of the request body, the buffered body is not copied.
+     * @return Read-only buffer with the request body contents.
+     * @throws IOException In case stream reading fails.
+     * @throws PowerAuthRequestBodyTooLargeException In case request body exceeds the maximum size.
+     */
+    public ByteBuffer getRequestBodyBuffer() throws IOException {
+        fillBuffer();
+        return ByteBuffer.wrap(requestBody).asReadOnlyBuffer();
+    }
+
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        return new CustomServletInputStream(getRequestBody());
+        fillBuffer();
+        return new CustomServletInputStream(requestBody);
     }
 
     @Override
@@ -79,6 +128,80 @@ public class ResettableStreamHttpServletRequest extends HttpServletRequestWrappe
         return new BufferedReader(new InputStreamReader(getInputStream()));
     }
 
+    /**
+     * Set request body which was already read from the wrapped request, e.g. using non-blocking I/O.
+     * @param requestBody Request body bytes.
+     */
+    void setRequestBody(byte[] requestBody) {
+        this.requestBody = requestBody;
+        this.bufferFilled = true;
+    }
+
+    /**
+     * Get the maximum request body size.
+     * @return Maximum request body size in bytes, {@link #UNLIMITED_BODY_SIZE} in case the size is not limited.
+     */
+    public long getMaxRequestBodySize() {
+        return maxRequestBodySize;
+    }
+
+    private void fillBuffer() throws IOException {
+        if (!bufferFilled) {
+            requestBody = readRequestBody(super.getInputStream());
+            bufferFilled = true;
+        }
+    }
+
+    /**
+     * Read request body, pre-size the buffer using the Content-Length header and enforce maximum request body size.
+     * @param inputStream Request input stream.
+     * @return Request body bytes.
+     * @throws IOException In case stream reading fails or request body exceeds the maximum size.
+     */
+    private byte[] readRequestBody(InputStream inputStream) throws IOException {
+        final boolean limited = maxRequestBodySize >= 0;
+        final long contentLength = getContentLengthLong();
+        if (limited && contentLength > maxRequestBodySize) {
+            throw new PowerAuthRequestBodyTooLargeException(maxRequestBodySize);
+        }
+
+        if (contentLength >= 0 && contentLength <= MAX_PRESIZED_BUFFER_SIZE) {
+            final byte[] body = new byte[(int) contentLength];
+            final int read = inputStream.readNBytes(body, 0, body.length);
+            if (read < body.length) {
+                // Request body is shorter than declared
+                return Arrays.copyOf(body, read);
+            }
+            final int next = inputStream.read();
+            if (next == -1) {
+                return body;
+            }
+            // Request body is longer than declared, read the rest of the stream
+            if (limited && body.length + 1L > maxRequestBodySize) {
+                throw new PowerAuthRequestBodyTooLargeException(maxRequestBodySize);
+            }
+            final byte[] remaining = readRemaining(inputStream, limited ? maxRequestBodySize - body.length - 1 : UNLIMITED_BODY_SIZE);
+            final byte[] result = Arrays.copyOf(body, body.length + 1 + remaining.length);
+            result[body.length] = (byte) next;
+            System.arraycopy(remaining, 0, result, body.length + 1, remaining.length);
+            return result;
+        }
+
+        return readRemaining(inputStream, limited ? maxRequestBodySize : UNLIMITED_BODY_SIZE);
+    }
+
+    private byte[] readRemaining(InputStream inputStream, long limit) throws IOException {
+        if (limit == UNLIMITED_BODY_SIZE) {
+            return inputStream.readAllBytes();
+        }
+        // Read one byte more than allowed to detect larger request bodies
+        final byte[] data = inputStream.readNBytes((int) Math.min(limit + 1, Integer.MAX_VALUE - 8));
+        if (data.length > limit) {
+            throw new PowerAuthRequestBodyTooLargeException(maxRequestBodySize);
+        }
+        return data;
+    }
+
     private static class CustomServletInputStream extends ServletInputStream {
 
         private final ByteArrayInputStream buffer;
@@ -132,8 +255,18 @@ public class ResettableStreamHttpServletRequest extends HttpServletRequestWrappe
         }
 
         @Override
-        public void setReadListener(ReadListener arg0) {
-            throw new RuntimeException("Not implemented");
+        public void setReadListener(ReadListener readListener) {
+            // The whole body is already buffered, the data is available immediately
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                if (isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException ex) {
+                readListener.onError(ex);
+            }
         }
 
     }
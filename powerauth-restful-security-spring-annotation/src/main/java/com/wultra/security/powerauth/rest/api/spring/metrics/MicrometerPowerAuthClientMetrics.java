@@ -0,0 +1,137 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer implementation of PowerAuth server call metrics. Calls are recorded by the timer
+ * {@value #METRIC_NAME} tagged by operation, outcome, signature type, protocol version and encryption scope.
+ * The meter registry is resolved lazily, nothing is recorded in case no meter registry is available.
+ */
+public class MicrometerPowerAuthClientMetrics implements PowerAuthClientMetrics {
+
+    /**
+     * Name of the timer of PowerAuth server calls.
+     */
+    public static final String METRIC_NAME = "powerauth.client.requests";
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_ERROR = "error";
+    private static final String NONE = "none";
+    private static final String OTHER = "other";
+
+    // Known protocol versions, other values are reported as "other" to keep the tag cardinality low
+    private static final Set<String> PROTOCOL_VERSIONS = Set.of("3.0", "3.1", "3.2", "3.3", "4.0");
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Constructor with meter registry provider.
+     * @param meterRegistryProvider Meter registry provider.
+     */
+    public MicrometerPowerAuthClientMetrics(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public <T, E extends Exception> T record(String operation, PowerAuthClientMetricTags tags, PowerAuthClientCall<T, E> call) throws E {
+        final MeterRegistry registry = getMeterRegistry();
+        if (registry == null) {
+            return call.call();
+        }
+        final long start = System.nanoTime();
+        String outcome = OUTCOME_ERROR;
+        try {
+            final T result = call.call();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            getTimer(registry, operation, tags, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void monitorCache(String cacheName, Cache<?, ?> cache) {
+        final MeterRegistry registry = getMeterRegistry();
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, cacheName);
+        }
+    }
+
+    @Override
+    public void monitorCounter(String name, String description, Supplier<Number> count) {
+        final MeterRegistry registry = getMeterRegistry();
+        if (registry != null) {
+            FunctionCounter.builder(name, count, c -> c.get().doubleValue())
+                    .description(description)
+                    .register(registry);
+        }
+    }
+
+    private MeterRegistry getMeterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistryProvider.getIfAvailable();
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+
+    private Timer getTimer(MeterRegistry registry, String operation, PowerAuthClientMetricTags tags, String outcome) {
+        final TimerKey key = new TimerKey(operation, outcome,
+                tags.signatureType() != null ? tags.signatureType().name().toLowerCase(Locale.ROOT) : NONE,
+                normalizeVersion(tags.protocolVersion()),
+                tags.encryptionScope() != null ? tags.encryptionScope().name().toLowerCase(Locale.ROOT) : NONE);
+        return timers.computeIfAbsent(key, k -> Timer.builder(METRIC_NAME)
+                .description("PowerAuth server calls")
+                .tag("operation", k.operation())
+                .tag("outcome", k.outcome())
+                .tag("signature_type", k.signatureType())
+                .tag("protocol_version", k.protocolVersion())
+                .tag("encryption_scope", k.encryptionScope())
+                .register(registry));
+    }
+
+    private static String normalizeVersion(String protocolVersion) {
+        if (protocolVersion == null) {
+            return NONE;
+        }
+        return PROTOCOL_VERSIONS.contains(protocolVersion) ? protocolVersion : OTHER;
+    }
+
+    private record TimerKey(String operation, String outcome, String signatureType, String protocolVersion, String encryptionScope) {
+    }
+
+}
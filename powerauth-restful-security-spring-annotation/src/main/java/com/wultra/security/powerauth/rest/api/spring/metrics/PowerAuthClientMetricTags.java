@@ -0,0 +1,66 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.metrics;
+
+/**
+ * Additional tags of PowerAuth server call metrics. Only enumerated values and protocol versions are accepted,
+ * so that the tags have low cardinality.
+ *
+ * @param signatureType Signature type, null in case it is not relevant.
+ * @param protocolVersion Protocol version, null in case it is not relevant.
+ * @param encryptionScope Encryption scope, null in case it is not relevant.
+ */
+public record PowerAuthClientMetricTags(Enum<?> signatureType, String protocolVersion, Enum<?> encryptionScope) {
+
+    /**
+     * No additional tags.
+     */
+    public static final PowerAuthClientMetricTags NONE = new PowerAuthClientMetricTags(null, null, null);
+
+    /**
+     * Tags of a signature related call.
+     * @param signatureType Signature type.
+     * @param protocolVersion Protocol version.
+     * @return Tags.
+     */
+    public static PowerAuthClientMetricTags signature(Enum<?> signatureType, String protocolVersion) {
+        return new PowerAuthClientMetricTags(signatureType, protocolVersion, null);
+    }
+
+    /**
+     * Tags of a call which depends on the protocol version only.
+     * @param protocolVersion Protocol version.
+     * @return Tags.
+     */
+    public static PowerAuthClientMetricTags version(String protocolVersion) {
+        return new PowerAuthClientMetricTags(null, protocolVersion, null);
+    }
+
+    /**
+     * Tags of an encryption related call.
+     * @param encryptionScope Encryption scope.
+     * @param protocolVersion Protocol version.
+     * @return Tags.
+     */
+    public static PowerAuthClientMetricTags encryption(Enum<?> encryptionScope, String protocolVersion) {
+        return new PowerAuthClientMetricTags(null, protocolVersion, encryptionScope);
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.function.Supplier;
+
+/**
+ * Metrics of PowerAuth server calls. The interface does not depend on any metrics library, the Micrometer
+ * implementation is configured automatically in case Micrometer is available on the classpath.
+ */
+public interface PowerAuthClientMetrics {
+
+    /**
+     * Metrics implementation which does not record anything.
+     */
+    PowerAuthClientMetrics NOOP = new PowerAuthClientMetrics() {
+        @Override
+        public <T, E extends Exception> T record(String operation, PowerAuthClientMetricTags tags, PowerAuthClientCall<T, E> call) throws E {
+            return call.call();
+        }
+    };
+
+    /**
+     * Perform the PowerAuth server call and record its latency and outcome.
+     *
+     * @param operation Operation name, e.g. verifySignature.
+     * @param tags Additional low-cardinality tags.
+     * @param call PowerAuth server call.
+     * @param <T> Result type.
+     * @param <E> Exception type.
+     * @return Result of the call.
+     * @throws E In case the call fails.
+     */
+    <T, E extends Exception> T record(String operation, PowerAuthClientMetricTags tags, PowerAuthClientCall<T, E> call) throws E;
+
+    /**
+     * Perform the PowerAuth server call without additional tags and record its latency and outcome.
+     *
+     * @param operation Operation name, e.g. prepareActivation.
+     * @param call PowerAuth server call.
+     * @param <T> Result type.
+     * @param <E> Exception type.
+     * @return Result of the call.
+     * @throws E In case the call fails.
+     */
+    default <T, E extends Exception> T record(String operation, PowerAuthClientCall<T, E> call) throws E {
+        return record(operation, PowerAuthClientMetricTags.NONE, call);
+    }
+
+    /**
+     * Register cache for monitoring of its size and hit ratio. The cache must record statistics.
+     *
+     * @param cacheName Cache name.
+     * @param cache Cache.
+     */
+    default void monitorCache(String cacheName, Cache<?, ?> cache) {
+        // Caches are not monitored by default
+    }
+
+    /**
+     * Register monotonically increasing count for monitoring, e.g. a number of fetches of a related resource.
+     *
+     * @param name Counter name.
+     * @param description Counter description.
+     * @param count Supplier of the current count.
+     */
+    default void monitorCounter(String name, String description, Supplier<Number> count) {
+        // Counters are not monitored by default
+    }
+
+    /**
+     * PowerAuth server call.
+     *
+     * @param <T> Result type.
+     * @param <E> Exception type.
+     */
+    @FunctionalInterface
+    interface PowerAuthClientCall<T, E extends Exception> {
+
+        /**
+         * Perform the call.
+         * @return Result of the call.
+         * @throws E In case the call fails.
+         */
+        T call() throws E;
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.provider;
+
+import com.wultra.core.annotations.PublicSpi;
+import com.wultra.security.powerauth.rest.api.spring.encryption.PowerAuthEncryptorParameters;
+import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthEncryptionException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Interface which enables derivation of ECIES decryptor parameters for requests encrypted in application scope
+ * without calling PowerAuth server, e.g. using a local key store holding the application key material.
+ * <br><br>
+ * Register a bean implementing this interface to enable the local derivation. In case the provider returns null,
+ * the decryptor parameters are obtained from PowerAuth server.
+ */
+@PublicSpi
+public interface ApplicationScopeDecryptorProvider {
+
+    /**
+     * Derive ECIES decryptor parameters for a request encrypted in application scope.
+     *
+     * @param applicationKey     Application key.
+     * @param temporaryKeyId     Temporary key ID, null for protocol versions without temporary keys.
+     * @param ephemeralPublicKey Ephemeral public key for ECIES.
+     * @param version            ECIES protocol version.
+     * @param nonce              ECIES nonce.
+     * @param timestamp          Timestamp for ECIES.
+     * @return ECIES decryptor parameters, or null in case the key material is not available locally.
+     * @throws PowerAuthEncryptionException In case the derivation fails.
+     */
+    @Nullable
+    PowerAuthEncryptorParameters getEciesDecryptorParameters(@Nonnull String applicationKey, @Nullable String temporaryKeyId, @Nonnull String ephemeralPublicKey, @Nonnull String version, String nonce, Long timestamp) throws PowerAuthEncryptionException;
+
+}
@@ -97,6 +97,11 @@ public interface CustomActivationProvider {
      * was successfully committed on the server side. Method is not called in case commit fails on server. On CODE
      * activation type, auto-commit is always disabled and hence this method is not called. Default implementation
      * is no-op.
+     * <br><br>
+     * In case the activation callback outbox is enabled via {@code powerauth.service.activation.callback-outbox.enabled},
+     * the method may be called asynchronously, repeatedly or after restart, and the identity attributes contain only
+     * the attributes listed in {@code powerauth.service.activation.callback-outbox.identity-attributes}, regardless
+     * of whether the call was delivered from the outbox or synchronously.
      *
      * @param identityAttributes Identity related attributes.
      * @param customAttributes Custom attributes, not related to identity.
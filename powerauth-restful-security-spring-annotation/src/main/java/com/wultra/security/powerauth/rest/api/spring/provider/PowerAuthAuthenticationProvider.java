@@ -19,6 +19,9 @@
  */
 package com.wultra.security.powerauth.rest.api.spring.provider;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.wultra.security.powerauth.client.PowerAuthClient;
 import com.wultra.security.powerauth.client.model.enumeration.SignatureType;
 import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
@@ -41,26 +44,37 @@ import com.wultra.security.powerauth.rest.api.spring.authentication.impl.PowerAu
 import com.wultra.security.powerauth.rest.api.spring.authentication.impl.PowerAuthSignatureAuthenticationImpl;
 import com.wultra.security.powerauth.rest.api.spring.authentication.impl.PowerAuthTokenAuthenticationImpl;
 import com.wultra.security.powerauth.rest.api.spring.converter.ActivationStatusConverter;
+import com.wultra.security.powerauth.rest.api.spring.configuration.PowerAuthAuthenticationConfigurationProperties;
 import com.wultra.security.powerauth.rest.api.spring.converter.SignatureTypeConverter;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthAuthenticationException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthHeaderMissingException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthSignatureInvalidException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthSignatureTypeInvalidException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthTokenInvalidException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetricTags;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
 import com.wultra.security.powerauth.rest.api.spring.model.ActivationStatus;
 import com.wultra.security.powerauth.rest.api.spring.model.AuthenticationContext;
+import com.wultra.security.powerauth.rest.api.spring.service.ActivationFlagsBuffer;
 import com.wultra.security.powerauth.rest.api.spring.service.HttpCustomizationService;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * Implementation of PowerAuth authentication provider.
@@ -73,9 +87,26 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
 
     private static final Logger logger = LoggerFactory.getLogger(PowerAuthAuthenticationProvider.class);
 
+    /**
+     * Name of an optional executor bean used for asynchronous authentication.
+     */
+    public static final String AUTHENTICATION_EXECUTOR_BEAN_NAME = "powerAuthAuthenticationExecutor";
+
     private final PowerAuthClient powerAuthClient;
     private final ActivationStatusConverter activationStatusConverter;
     private final HttpCustomizationService httpCustomizationService;
+    private final PowerAuthAuthenticationConfigurationProperties configurationProperties;
+
+    // Token validations in progress, used when token validation coalescing is enabled
+    private final Map<TokenValidationKey, CompletableFuture<ValidateTokenResponse>> tokenValidationsInFlight = new ConcurrentHashMap<>();
+
+    // Failed authentications of removed activations, keyed by activation ID and token ID, null when disabled
+    private final Cache<String, VerifySignatureResponse> signatureNegativeCache;
+    private final Cache<String, ValidateTokenResponse> tokenNegativeCache;
+
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
+    private ActivationFlagsBuffer activationFlagsBuffer;
 
     /**
      * Provider constructor.
@@ -83,11 +114,126 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
      * @param activationStatusConverter Activation status converter.
      * @param httpCustomizationService HTTP customization service.
      */
-    @Autowired
     public PowerAuthAuthenticationProvider(PowerAuthClient powerAuthClient, ActivationStatusConverter activationStatusConverter, HttpCustomizationService httpCustomizationService) {
+        this(powerAuthClient, activationStatusConverter, httpCustomizationService, new PowerAuthAuthenticationConfigurationProperties());
+    }
+
+    /**
+     * Provider constructor.
+     * @param powerAuthClient PowerAuth client.
+     * @param activationStatusConverter Activation status converter.
+     * @param httpCustomizationService HTTP customization service.
+     * @param configurationProperties Authentication configuration properties.
+     */
+    @Autowired
+    public PowerAuthAuthenticationProvider(PowerAuthClient powerAuthClient, ActivationStatusConverter activationStatusConverter, HttpCustomizationService httpCustomizationService, PowerAuthAuthenticationConfigurationProperties configurationProperties) {
         this.powerAuthClient = powerAuthClient;
         this.activationStatusConverter = activationStatusConverter;
         this.httpCustomizationService = httpCustomizationService;
+        this.configurationProperties = configurationProperties;
+
+        final PowerAuthAuthenticationConfigurationProperties.NegativeCache negativeCacheConfig = configurationProperties.getNegativeCache();
+        if (negativeCacheConfig.isEnabled()) {
+            this.signatureNegativeCache = buildNegativeCache(negativeCacheConfig);
+            this.tokenNegativeCache = buildNegativeCache(negativeCacheConfig);
+        } else {
+            this.signatureNegativeCache = null;
+            this.tokenNegativeCache = null;
+        }
+    }
+
+    /**
+     * Set executor used for asynchronous authentication, in case a bean named {@value #AUTHENTICATION_EXECUTOR_BEAN_NAME}
+     * is available. Virtual threads are used on Java 21 and newer otherwise.
+     * @param authenticationExecutor Executor for asynchronous authentication.
+     */
+    @Override
+    @Autowired(required = false)
+    public void setAuthenticationExecutor(@Qualifier(AUTHENTICATION_EXECUTOR_BEAN_NAME) Executor authenticationExecutor) {
+        super.setAuthenticationExecutor(authenticationExecutor);
+    }
+
+    /**
+     * Set activation flags buffer, so that flags buffered on this node are included in authentication results.
+     * @param activationFlagsBuffer Activation flags buffer.
+     */
+    @Autowired(required = false)
+    public void setActivationFlagsBuffer(ActivationFlagsBuffer activationFlagsBuffer) {
+        this.activationFlagsBuffer = activationFlagsBuffer;
+    }
+
+    /**
+     * Set metrics of PowerAuth server calls. The negative caches are registered for monitoring, in case they are enabled.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+        if (signatureNegativeCache != null) {
+            clientMetrics.monitorCache("powerauth.signature.negative", signatureNegativeCache);
+        }
+        if (tokenNegativeCache != null) {
+            clientMetrics.monitorCache("powerauth.token.negative", tokenNegativeCache);
+        }
+    }
+
+    private static <T> Cache<String, T> buildNegativeCache(PowerAuthAuthenticationConfigurationProperties.NegativeCache negativeCacheConfig) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(negativeCacheConfig.getTtl())
+                .maximumSize(negativeCacheConfig.getMaximumSize())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Invalidate cached failed authentications of given activation.
+     * @param activationId Activation ID.
+     */
+    public void invalidateActivation(String activationId) {
+        if (signatureNegativeCache != null) {
+            signatureNegativeCache.invalidate(activationId);
+        }
+        if (tokenNegativeCache != null) {
+            tokenNegativeCache.asMap().values().removeIf(response -> activationId.equals(response.getActivationId()));
+        }
+    }
+
+    /**
+     * Invalidate cached failed authentication of given token.
+     * @param tokenId Token ID.
+     */
+    public void invalidateToken(String tokenId) {
+        if (tokenNegativeCache != null) {
+            tokenNegativeCache.invalidate(tokenId);
+        }
+    }
+
+    /**
+     * Invalidate all cached failed authentications.
+     */
+    public void invalidateNegativeCache() {
+        if (signatureNegativeCache != null) {
+            signatureNegativeCache.invalidateAll();
+        }
+        if (tokenNegativeCache != null) {
+            tokenNegativeCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Get statistics of the signature negative cache.
+     * @return Cache statistics, empty statistics in case the cache is disabled.
+     */
+    public CacheStats getSignatureNegativeCacheStats() {
+        return signatureNegativeCache != null ? signatureNegativeCache.stats() : CacheStats.empty();
+    }
+
+    /**
+     * Get statistics of the token negative cache.
+     * @return Cache statistics, empty statistics in case the cache is disabled.
+     */
+    public CacheStats getTokenNegativeCacheStats() {
+        return tokenNegativeCache != null ? tokenNegativeCache.stats() : CacheStats.empty();
     }
 
     /**
@@ -147,16 +293,17 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
 
             final VerifySignatureResponse response;
             try {
-                response = powerAuthClient.verifySignature(
-                        verifyRequest,
-                        httpCustomizationService.getQueryParams(),
-                        httpCustomizationService.getHttpHeaders()
-                );
+                response = verifySignatureOnServer(verifyRequest);
             } catch (PowerAuthClientException ex) {
                 logger.warn("Signature validation failed, error: {}", ex.getMessage());
                 logger.debug("Error details", ex);
                 return null;
             }
+
+            // Response may be shared by cached validations, make sure each authentication has its own lists
+            final List<String> applicationRoles = copyIfShared(response.getApplicationRoles());
+            final List<String> activationFlags = mergePendingFlags(response.getActivationId(), copyIfShared(response.getActivationFlags()));
+
             final ActivationStatus activationStatus = activationStatusConverter.convertFrom(response.getActivationStatus());
             final AuthenticationContext authenticationContext = new AuthenticationContext();
             authenticationContext.setValid(response.isSignatureValid());
@@ -164,9 +311,9 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
             authenticationContext.setSignatureType(response.getSignatureType() != null ? PowerAuthSignatureTypes.getEnumFromString(response.getSignatureType().name()) : null);
             final PowerAuthActivation activationContext = copyActivationAttributes(response.getActivationId(), response.getUserId(),
                     activationStatus, response.getBlockedReason(),
-                    response.getActivationFlags(), authenticationContext, authentication.getVersion());
+                    activationFlags, authenticationContext, authentication.getVersion());
             return copyAuthenticationAttributes(response.getActivationId(), response.getUserId(),
-                    response.getApplicationId(), response.getApplicationRoles(), response.getActivationFlags(),
+                    response.getApplicationId(), applicationRoles, activationFlags,
                     authenticationContext, authentication.getVersion(), authentication.getHttpHeader(),
                     activationContext);
         } else {
@@ -189,11 +336,11 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
             validateRequest.setTimestamp(Long.parseLong(authentication.getTimestamp()));
             validateRequest.setProtocolVersion(authentication.getVersion());
 
-            final ValidateTokenResponse response = powerAuthClient.validateToken(
-                    validateRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final ValidateTokenResponse response = validateTokenOnServer(validateRequest);
+
+            // Response may be shared by coalesced or cached validations, make sure each authentication has its own lists
+            final List<String> applicationRoles = copyIfShared(response.getApplicationRoles());
+            final List<String> activationFlags = mergePendingFlags(response.getActivationId(), copyIfShared(response.getActivationFlags()));
 
             final ActivationStatus activationStatus = activationStatusConverter.convertFrom(response.getActivationStatus());
             final AuthenticationContext authenticationContext = new AuthenticationContext();
@@ -202,9 +349,9 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
             authenticationContext.setSignatureType(response.getSignatureType() != null ? PowerAuthSignatureTypes.getEnumFromString(response.getSignatureType().name()) : null);
             final PowerAuthActivation activationContext = copyActivationAttributes(response.getActivationId(), response.getUserId(),
                     activationStatus, response.getBlockedReason(),
-                    response.getActivationFlags(), authenticationContext, authentication.getVersion());
+                    activationFlags, authenticationContext, authentication.getVersion());
             return copyAuthenticationAttributes(response.getActivationId(), response.getUserId(),
-                    response.getApplicationId(), response.getApplicationRoles(), response.getActivationFlags(),
+                    response.getApplicationId(), applicationRoles, activationFlags,
                     authenticationContext, authentication.getVersion(), authentication.getHttpHeader(),
                     activationContext);
         } catch (NumberFormatException ex) {
@@ -218,6 +365,178 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         }
     }
 
+    /**
+     * Verify signature using PowerAuth server. In case the negative cache is enabled, failed verifications
+     * of removed activations are served from the cache.
+     *
+     * @param verifyRequest Verify signature request.
+     * @return Verify signature response.
+     * @throws PowerAuthClientException In case PowerAuth server call fails.
+     */
+    private VerifySignatureResponse verifySignatureOnServer(VerifySignatureRequest verifyRequest) throws PowerAuthClientException {
+        if (signatureNegativeCache != null) {
+            final VerifySignatureResponse cachedResponse = signatureNegativeCache.getIfPresent(verifyRequest.getActivationId());
+            if (cachedResponse != null) {
+                logger.debug("Signature verification skipped, activation is not active, activation ID: {}", verifyRequest.getActivationId());
+                return cachedResponse;
+            }
+        }
+        final VerifySignatureResponse response = clientMetrics.record("verifySignature",
+                PowerAuthClientMetricTags.signature(verifyRequest.getSignatureType(), verifyRequest.getSignatureVersion()),
+                () -> powerAuthClient.verifySignature(
+                        verifyRequest,
+                        httpCustomizationService.getQueryParams(),
+                        httpCustomizationService.getHttpHeaders()
+                ));
+        if (signatureNegativeCache != null && !response.isSignatureValid() && isTerminalFailure(response.getActivationStatus())) {
+            signatureNegativeCache.put(verifyRequest.getActivationId(), response);
+        }
+        return response;
+    }
+
+    /**
+     * Validate token using PowerAuth server. In case the negative cache is enabled, failed validations of tokens
+     * of removed activations are served from the cache.
+     *
+     * @param validateRequest Validate token request.
+     * @return Validate token response.
+     * @throws PowerAuthClientException In case PowerAuth server call fails.
+     */
+    private ValidateTokenResponse validateTokenOnServer(ValidateTokenRequest validateRequest) throws PowerAuthClientException {
+        if (tokenNegativeCache != null) {
+            final ValidateTokenResponse cachedResponse = tokenNegativeCache.getIfPresent(validateRequest.getTokenId());
+            if (cachedResponse != null) {
+                logger.debug("Token validation skipped, activation is not active, token ID: {}", validateRequest.getTokenId());
+                return cachedResponse;
+            }
+        }
+        final ValidateTokenResponse response = validateTokenCoalesced(validateRequest);
+        if (tokenNegativeCache != null && !response.isTokenValid() && isTerminalFailure(response.getActivationStatus())) {
+            tokenNegativeCache.put(validateRequest.getTokenId(), response);
+        }
+        return response;
+    }
+
+    /**
+     * Check whether the activation status makes all further authentications fail. Blocked activations are not
+     * considered terminal, because they can be unblocked on PowerAuth server without notifying this node.
+     * @param activationStatus Activation status.
+     * @return Whether the activation is removed.
+     */
+    private boolean isTerminalFailure(com.wultra.security.powerauth.client.model.enumeration.ActivationStatus activationStatus) {
+        return activationStatusConverter.convertFrom(activationStatus) == ActivationStatus.REMOVED;
+    }
+
+    /**
+     * Validate token using PowerAuth server. In case token validation coalescing is enabled, concurrent validations
+     * of the same token header share a single PowerAuth server call and its response. The nonce replay check is
+     * therefore performed only for the first of the identical in-flight requests.
+     *
+     * @param validateRequest Validate token request.
+     * @return Validate token response.
+     * @throws PowerAuthClientException In case PowerAuth server call fails.
+     */
+    private ValidateTokenResponse validateTokenCoalesced(ValidateTokenRequest validateRequest) throws PowerAuthClientException {
+        if (!configurationProperties.getTokenCoalescing().isEnabled()) {
+            return validateTokenWithMetrics(validateRequest);
+        }
+
+        final TokenValidationKey key = new TokenValidationKey(validateRequest.getTokenId(), validateRequest.getTokenDigest(),
+                validateRequest.getNonce(), validateRequest.getTimestamp(), validateRequest.getProtocolVersion());
+        final CompletableFuture<ValidateTokenResponse> future = new CompletableFuture<>();
+        final CompletableFuture<ValidateTokenResponse> inFlight = tokenValidationsInFlight.putIfAbsent(key, future);
+        if (inFlight != null) {
+            logger.debug("Joining in-flight validation of token: {}", validateRequest.getTokenId());
+            return awaitTokenValidation(inFlight);
+        }
+
+        try {
+            final ValidateTokenResponse response = validateTokenWithMetrics(validateRequest);
+            future.complete(response);
+            return response;
+        } catch (PowerAuthClientException | RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            tokenValidationsInFlight.remove(key, future);
+            // Never leave waiting validations blocked, e.g. in case of an error
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Validate token using PowerAuth server and record the call metrics.
+     *
+     * @param validateRequest Validate token request.
+     * @return Validate token response.
+     * @throws PowerAuthClientException In case PowerAuth server call fails.
+     */
+    private ValidateTokenResponse validateTokenWithMetrics(ValidateTokenRequest validateRequest) throws PowerAuthClientException {
+        return clientMetrics.record("validateToken", PowerAuthClientMetricTags.version(validateRequest.getProtocolVersion()),
+                () -> powerAuthClient.validateToken(
+                        validateRequest,
+                        httpCustomizationService.getQueryParams(),
+                        httpCustomizationService.getHttpHeaders()
+                ));
+    }
+
+    /**
+     * Wait for the token validation performed by another thread.
+     *
+     * @param inFlight Token validation in progress.
+     * @return Validate token response.
+     * @throws PowerAuthClientException In case PowerAuth server call fails.
+     */
+    private static ValidateTokenResponse awaitTokenValidation(CompletableFuture<ValidateTokenResponse> inFlight) throws PowerAuthClientException {
+        try {
+            return inFlight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof final PowerAuthClientException clientException) {
+                throw clientException;
+            }
+            if (ex.getCause() instanceof final RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Merge activation flags buffered on this node which were not written to PowerAuth server yet.
+     *
+     * @param activationId Activation ID.
+     * @param activationFlags Activation flags from PowerAuth server.
+     * @return Activation flags including the buffered flags.
+     */
+    private List<String> mergePendingFlags(String activationId, List<String> activationFlags) {
+        final ActivationFlagsBuffer buffer = activationFlagsBuffer;
+        return buffer != null ? buffer.mergePendingFlags(activationId, activationFlags) : activationFlags;
+    }
+
+    /**
+     * Copy list in case server responses may be shared between validations.
+     *
+     * @param list Source list.
+     * @return Copy of the list in case token validation coalescing or negative cache is enabled, the source list otherwise.
+     */
+    private List<String> copyIfShared(List<String> list) {
+        if (list == null || (!configurationProperties.getTokenCoalescing().isEnabled() && signatureNegativeCache == null && tokenNegativeCache == null)) {
+            return list;
+        }
+        return new ArrayList<>(list);
+    }
+
+    /**
+     * Key of the token validation in progress, composed of all values of the parsed token header.
+     * @param tokenId Token ID.
+     * @param tokenDigest Token digest.
+     * @param nonce Nonce.
+     * @param timestamp Timestamp.
+     * @param version Protocol version.
+     */
+    private record TokenValidationKey(String tokenId, String tokenDigest, String nonce, long timestamp, String version) {
+    }
+
     /**
      * Prepare API initialized authentication object with provided authentication attributes.
      * @param activationId Activation ID.
@@ -305,7 +624,7 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         // Check for HTTP PowerAuth signature header
         if (httpAuthorizationHeader.equals("undefined")) {
             logger.warn("Signature HTTP header is missing");
-            throw new PowerAuthHeaderMissingException();
+            throw PowerAuthHeaderMissingException.stackless();
         }
 
         // Parse HTTP header
@@ -317,14 +636,14 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         } catch (InvalidPowerAuthHttpHeaderException ex) {
             logger.warn("Signature HTTP header validation failed, error: {}", ex.getMessage());
             logger.debug(ex.getMessage(), ex);
-            throw new PowerAuthSignatureInvalidException();
+            throw PowerAuthSignatureInvalidException.stackless();
         }
 
         // Check if the signature type is allowed
         final PowerAuthSignatureTypes expectedSignatureType = PowerAuthSignatureTypes.getEnumFromString(header.getSignatureType());
         if (expectedSignatureType == null || !allowedSignatureTypes.contains(expectedSignatureType)) {
             logger.warn("Invalid signature type: {}", expectedSignatureType);
-            throw new PowerAuthSignatureTypeInvalidException();
+            throw PowerAuthSignatureTypeInvalidException.stackless();
         }
 
         // Configure PowerAuth authentication object
@@ -347,7 +666,7 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         // In case authentication is null, throw PowerAuth exception
         if (auth == null) {
             logger.debug("Signature validation failed");
-            throw new PowerAuthSignatureInvalidException();
+            throw PowerAuthSignatureInvalidException.stackless();
         }
 
         return auth;
@@ -376,7 +695,7 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         // Check for HTTP PowerAuth signature header
         if (tokenHeader.equals("undefined")) {
             logger.warn("Token HTTP header is missing");
-            throw new PowerAuthHeaderMissingException();
+            throw PowerAuthHeaderMissingException.stackless();
         }
 
         // Parse HTTP header
@@ -388,7 +707,7 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         } catch (InvalidPowerAuthHttpHeaderException ex) {
             logger.warn("Token validation failed, error: {}", ex.getMessage());
             logger.debug(ex.getMessage(), ex);
-            throw new PowerAuthTokenInvalidException();
+            throw PowerAuthTokenInvalidException.stackless();
         }
 
         // Prepare authentication object
@@ -406,14 +725,14 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         // In case authentication is null, throw PowerAuth exception
         if (auth == null) {
             logger.debug("Invalid token value");
-            throw new PowerAuthTokenInvalidException();
+            throw PowerAuthTokenInvalidException.stackless();
         }
 
         // Check if the signature type is allowed
         final PowerAuthSignatureTypes expectedSignatureType = auth.getAuthenticationContext().getSignatureType();
         if (expectedSignatureType == null || !allowedSignatureTypes.contains(expectedSignatureType)) {
             logger.warn("Invalid signature type in token validation: {}", expectedSignatureType);
-            throw new PowerAuthSignatureTypeInvalidException();
+            throw PowerAuthSignatureTypeInvalidException.stackless();
         }
 
         return auth;
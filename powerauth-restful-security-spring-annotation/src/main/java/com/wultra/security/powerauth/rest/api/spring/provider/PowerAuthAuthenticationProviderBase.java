@@ -26,17 +26,29 @@ import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthAuthenti
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthRequestFilterException;
 import com.wultra.security.powerauth.rest.api.spring.model.PowerAuthRequestBody;
 import com.wultra.security.powerauth.rest.api.spring.model.PowerAuthRequestObjects;
+import com.wultra.security.powerauth.rest.api.spring.service.PowerAuthDefaultExecutor;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Abstract class for PowerAuth authentication provider.
+ * <p>
+ * Besides the blocking validation methods, the provider offers asynchronous variants returning
+ * {@link CompletableFuture}. The asynchronous validations run on the authentication executor, which
+ * uses virtual threads on Java 21 and newer and a bounded thread pool otherwise by default, see
+ * {@link PowerAuthDefaultExecutor}. The logging context (MDC) of the calling thread,
+ * including the correlation header, is propagated to the executor threads.
  *
  * @author Petr Dvorak, petr@wultra.com
  *
@@ -45,6 +57,35 @@ public abstract class PowerAuthAuthenticationProviderBase {
 
     private static final Logger logger = LoggerFactory.getLogger(PowerAuthAuthenticationProviderBase.class);
 
+    private Executor authenticationExecutor;
+
+    /**
+     * Set executor used for asynchronous authentication.
+     * @param authenticationExecutor Executor for asynchronous authentication.
+     */
+    public void setAuthenticationExecutor(Executor authenticationExecutor) {
+        this.authenticationExecutor = authenticationExecutor;
+    }
+
+    /**
+     * Get executor used for asynchronous authentication. Default executor is used in case no executor is set.
+     * @return Executor for asynchronous authentication.
+     */
+    protected Executor getAuthenticationExecutor() {
+        final Executor executor = authenticationExecutor;
+        return executor != null ? executor : PowerAuthDefaultExecutor.getInstance();
+    }
+
+    /**
+     * Check whether asynchronous authentication runs on a configured executor or on virtual threads. Callers should
+     * use the asynchronous variants only to overlap work in this case, the bounded default pool used on older Java
+     * versions is shared and not sized for a validation per request.
+     * @return True in case an executor is configured or virtual threads are available.
+     */
+    public boolean isAsyncAuthenticationPreferred() {
+        return authenticationExecutor != null || PowerAuthDefaultExecutor.isVirtualThreads();
+    }
+
     /**
      * Validate the signature from the PowerAuth HTTP header against the provided HTTP method, request body and URI identifier.
      * Make sure to accept only allowed signatures. Return an instance of PowerAuthApiAuthentication on successful authorization,
@@ -190,6 +231,100 @@ public abstract class PowerAuthAuthenticationProviderBase {
         return this.validateToken(tokenHeader, defaultAllowedSignatureTypes);
     }
 
+    /**
+     * Asynchronous variant of {@link #validateRequestSignatureWithActivationDetails(String, byte[], String, String, List, Integer)}.
+     * The returned future completes exceptionally with {@link PowerAuthAuthenticationException} in case authorization fails.
+     * @param httpMethod HTTP method (GET, POST, ...)
+     * @param httpBody Body of the HTTP request.
+     * @param requestUriIdentifier Request URI identifier.
+     * @param httpAuthorizationHeader PowerAuth HTTP authorization header.
+     * @param allowedSignatureTypes Allowed types of the signature.
+     * @param forcedSignatureVersion Forced signature version during upgrade.
+     * @return Future with instance of a PowerAuthApiAuthentication.
+     */
+    public @Nonnull CompletableFuture<PowerAuthApiAuthentication> validateRequestSignatureWithActivationDetailsAsync(@Nonnull String httpMethod, @Nullable byte[] httpBody, @Nonnull String requestUriIdentifier, @Nonnull String httpAuthorizationHeader, @Nonnull List<PowerAuthSignatureTypes> allowedSignatureTypes, @Nullable Integer forcedSignatureVersion) {
+        return supplyAsync(() -> validateRequestSignatureWithActivationDetails(httpMethod, httpBody, requestUriIdentifier, httpAuthorizationHeader, allowedSignatureTypes, forcedSignatureVersion));
+    }
+
+    /**
+     * Asynchronous variant of {@link #validateRequestSignatureWithActivationDetails(HttpServletRequest, String, String, List)}.
+     * The request body is extracted on the calling thread, the servlet request is not accessed asynchronously.
+     * The returned future completes exceptionally with {@link PowerAuthAuthenticationException} in case authorization fails.
+     * @param servletRequest HTTPServletRequest with signed data.
+     * @param requestUriIdentifier Request URI identifier.
+     * @param httpAuthorizationHeader PowerAuth HTTP authorization header.
+     * @param allowedSignatureTypes Allowed types of signatures.
+     * @return Future with instance of a PowerAuthApiAuthentication.
+     */
+    public @Nonnull CompletableFuture<PowerAuthApiAuthentication> validateRequestSignatureWithActivationDetailsAsync(@Nonnull HttpServletRequest servletRequest, @Nonnull String requestUriIdentifier, @Nonnull String httpAuthorizationHeader, @Nonnull List<PowerAuthSignatureTypes> allowedSignatureTypes) {
+        final String requestMethod = servletRequest.getMethod().toUpperCase();
+        final byte[] requestBodyBytes;
+        try {
+            requestBodyBytes = extractRequestBodyBytes(servletRequest);
+        } catch (PowerAuthAuthenticationException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        return validateRequestSignatureWithActivationDetailsAsync(requestMethod, requestBodyBytes, requestUriIdentifier, httpAuthorizationHeader, allowedSignatureTypes, null);
+    }
+
+    /**
+     * Asynchronous variant of {@link #validateTokenWithActivationDetails(String, List)}.
+     * The returned future completes exceptionally with {@link PowerAuthAuthenticationException} in case authorization fails.
+     * @param httpAuthorizationHeader HTTP header with token digest.
+     * @param allowedSignatureTypes Allowed types of the signature.
+     * @return Future with instance of a PowerAuthApiAuthentication.
+     */
+    public @Nonnull CompletableFuture<PowerAuthApiAuthentication> validateTokenWithActivationDetailsAsync(@Nonnull String httpAuthorizationHeader, @Nonnull List<PowerAuthSignatureTypes> allowedSignatureTypes) {
+        return supplyAsync(() -> validateTokenWithActivationDetails(httpAuthorizationHeader, allowedSignatureTypes));
+    }
+
+    /**
+     * Run the authentication on the authentication executor, propagate the MDC of the calling thread.
+     * @param task Authentication task.
+     * @return Future with the authentication result.
+     */
+    private CompletableFuture<PowerAuthApiAuthentication> supplyAsync(AuthenticationTask task) {
+        final Map<String, String> callerContext = MDC.getCopyOfContextMap();
+        final CompletableFuture<PowerAuthApiAuthentication> future = new CompletableFuture<>();
+        try {
+            getAuthenticationExecutor().execute(() -> {
+                if (future.isDone()) {
+                    // Cancelled by the caller before the validation started
+                    return;
+                }
+                final Map<String, String> previousContext = MDC.getCopyOfContextMap();
+                setMdcContext(callerContext);
+                try {
+                    future.complete(task.call());
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                } finally {
+                    setMdcContext(previousContext);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Asynchronous authentication was rejected, error: {}", ex.getMessage());
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    private static void setMdcContext(Map<String, String> context) {
+        if (context != null) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * Authentication task which may fail with a PowerAuth authentication exception.
+     */
+    @FunctionalInterface
+    private interface AuthenticationTask {
+        PowerAuthApiAuthentication call() throws PowerAuthAuthenticationException;
+    }
+
     /**
      * Extract request body bytes from HTTP servlet request. In case the data was transparently decrypted, use the decrypted request data.
      * @param servletRequest HTTP servlet request.
@@ -22,9 +22,13 @@ package com.wultra.security.powerauth.rest.api.spring.provider;
 import com.wultra.security.powerauth.client.PowerAuthClient;
 import com.wultra.security.powerauth.client.model.request.GetEciesDecryptorRequest;
 import com.wultra.security.powerauth.client.model.response.GetEciesDecryptorResponse;
+import com.wultra.security.powerauth.rest.api.spring.encryption.EncryptionScope;
 import com.wultra.security.powerauth.rest.api.spring.encryption.PowerAuthEncryptorParameters;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthEncryptionException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetricTags;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
 import com.wultra.security.powerauth.rest.api.spring.service.HttpCustomizationService;
+import com.wultra.security.powerauth.rest.api.spring.service.JsonSerializationService;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
@@ -46,6 +50,8 @@ public class PowerAuthEncryptionProvider extends PowerAuthEncryptionProviderBase
     private final PowerAuthClient powerAuthClient;
     private final HttpCustomizationService httpCustomizationService;
 
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
     /**
      * Provide constructor.
      * @param powerAuthClient PowerAuth client.
@@ -57,6 +63,35 @@ public class PowerAuthEncryptionProvider extends PowerAuthEncryptionProviderBase
         this.httpCustomizationService = httpCustomizationService;
     }
 
+    /**
+     * Set provider of ECIES decryptor parameters for application scope, in case such bean is available.
+     * @param applicationScopeDecryptorProvider Application scope decryptor provider.
+     */
+    @Override
+    @Autowired(required = false)
+    public void setApplicationScopeDecryptorProvider(ApplicationScopeDecryptorProvider applicationScopeDecryptorProvider) {
+        super.setApplicationScopeDecryptorProvider(applicationScopeDecryptorProvider);
+    }
+
+    /**
+     * Set JSON serialization service shared by PowerAuth components.
+     * @param jsonSerializationService JSON serialization service.
+     */
+    @Override
+    @Autowired
+    public void setJsonSerializationService(JsonSerializationService jsonSerializationService) {
+        super.setJsonSerializationService(jsonSerializationService);
+    }
+
+    /**
+     * Set metrics of PowerAuth server calls.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+    }
+
     @Override
     public @Nonnull PowerAuthEncryptorParameters getEciesDecryptorParameters(@Nullable String activationId, @Nonnull String applicationKey, @Nonnull String temporaryKeyId, @Nonnull String ephemeralPublicKey, @Nonnull String version, String nonce, Long timestamp) throws PowerAuthEncryptionException {
         try {
@@ -68,11 +103,14 @@ public class PowerAuthEncryptionProvider extends PowerAuthEncryptionProviderBase
             eciesDecryptorRequest.setProtocolVersion(version);
             eciesDecryptorRequest.setNonce(nonce);
             eciesDecryptorRequest.setTimestamp(timestamp);
-            final GetEciesDecryptorResponse eciesDecryptorResponse = powerAuthClient.getEciesDecryptor(
-                    eciesDecryptorRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final EncryptionScope encryptionScope = activationId != null ? EncryptionScope.ACTIVATION_SCOPE : EncryptionScope.APPLICATION_SCOPE;
+            final GetEciesDecryptorResponse eciesDecryptorResponse = clientMetrics.record("getEciesDecryptor",
+                    PowerAuthClientMetricTags.encryption(encryptionScope, version),
+                    () -> powerAuthClient.getEciesDecryptor(
+                            eciesDecryptorRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
 
             return new PowerAuthEncryptorParameters(eciesDecryptorResponse.getSecretKey(), eciesDecryptorResponse.getSharedInfo2());
         } catch (Exception ex) {
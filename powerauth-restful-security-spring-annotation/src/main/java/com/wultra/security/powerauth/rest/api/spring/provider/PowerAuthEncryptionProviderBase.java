@@ -22,7 +22,6 @@ package com.wultra.security.powerauth.rest.api.spring.provider;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.wultra.security.powerauth.crypto.lib.encryptor.EncryptorFactory;
 import com.wultra.security.powerauth.crypto.lib.encryptor.ServerEncryptor;
 import com.wultra.security.powerauth.crypto.lib.encryptor.model.EncryptedRequest;
@@ -43,6 +42,7 @@ import com.wultra.security.powerauth.rest.api.spring.encryption.PowerAuthEncrypt
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthEncryptionException;
 import com.wultra.security.powerauth.rest.api.spring.model.PowerAuthRequestBody;
 import com.wultra.security.powerauth.rest.api.spring.model.PowerAuthRequestObjects;
+import com.wultra.security.powerauth.rest.api.spring.service.JsonSerializationService;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
@@ -64,9 +64,40 @@ public abstract class PowerAuthEncryptionProviderBase {
 
     private static final Logger logger = LoggerFactory.getLogger(PowerAuthEncryptionProviderBase.class);
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
     private final EncryptorFactory encryptorFactory = new EncryptorFactory();
 
+    private volatile JsonSerializationService jsonSerializationService;
+
+    private ApplicationScopeDecryptorProvider applicationScopeDecryptorProvider;
+
+    /**
+     * Set provider of ECIES decryptor parameters for application scope, used instead of PowerAuth server
+     * in case it holds the key material of the application.
+     *
+     * @param applicationScopeDecryptorProvider Application scope decryptor provider.
+     */
+    public void setApplicationScopeDecryptorProvider(ApplicationScopeDecryptorProvider applicationScopeDecryptorProvider) {
+        this.applicationScopeDecryptorProvider = applicationScopeDecryptorProvider;
+    }
+
+    /**
+     * Get object mapper used for serialization and deserialization of encrypted data.
+     *
+     * @return Object mapper.
+     */
+    public @Nonnull ObjectMapper getObjectMapper() {
+        return getJsonSerializationService().getObjectMapper();
+    }
+
+    /**
+     * Set JSON serialization service used for serialization and deserialization of encrypted data.
+     *
+     * @param jsonSerializationService JSON serialization service.
+     */
+    public void setJsonSerializationService(JsonSerializationService jsonSerializationService) {
+        this.jsonSerializationService = jsonSerializationService;
+    }
+
     /**
      * Get ECIES decryptor parameters from PowerAuth server.
      *
@@ -118,7 +149,7 @@ public abstract class PowerAuthEncryptionProviderBase {
             }
             final EciesEncryptedRequest eciesRequest;
             try {
-                eciesRequest = objectMapper.readValue(requestBodyBytes, EciesEncryptedRequest.class);
+                eciesRequest = getJsonSerializationService().readValue(requestBodyBytes, EciesEncryptedRequest.class);
             } catch (IOException ex) {
                 logger.warn("Request deserialization failed, error: {}", ex.getMessage());
                 logger.debug(ex.getMessage(), ex);
@@ -152,16 +183,29 @@ public abstract class PowerAuthEncryptionProviderBase {
                 logger.warn("Activation ID is required for activation scope");
                 throw new PowerAuthEncryptionException();
             }
-            // Get encryptor parameters from the PowerAuth Server.
-            final PowerAuthEncryptorParameters encryptorParameters = getEciesDecryptorParameters(
-                    activationId,
-                    applicationKey,
-                    encryptedRequest.getTemporaryKeyId(),
-                    encryptedRequest.getEphemeralPublicKey(),
-                    version,
-                    encryptedRequest.getNonce(),
-                    encryptedRequest.getTimestamp()
-            );
+            // Get encryptor parameters locally in application scope, if possible, or from the PowerAuth Server.
+            PowerAuthEncryptorParameters encryptorParameters = null;
+            if (encryptionScope == EncryptionScope.APPLICATION_SCOPE && applicationScopeDecryptorProvider != null) {
+                encryptorParameters = applicationScopeDecryptorProvider.getEciesDecryptorParameters(
+                        applicationKey,
+                        encryptedRequest.getTemporaryKeyId(),
+                        encryptedRequest.getEphemeralPublicKey(),
+                        version,
+                        encryptedRequest.getNonce(),
+                        encryptedRequest.getTimestamp()
+                );
+            }
+            if (encryptorParameters == null) {
+                encryptorParameters = getEciesDecryptorParameters(
+                        activationId,
+                        applicationKey,
+                        encryptedRequest.getTemporaryKeyId(),
+                        encryptedRequest.getEphemeralPublicKey(),
+                        version,
+                        encryptedRequest.getNonce(),
+                        encryptedRequest.getTimestamp()
+                );
+            }
             // Build server encryptor with obtained encryptor parameters
             final byte[] secretKeyBytes = Base64.getDecoder().decode(encryptorParameters.secretKey());
             final byte[] sharedInfo2Base = Base64.getDecoder().decode(encryptorParameters.sharedInfo2());
@@ -180,7 +224,7 @@ public abstract class PowerAuthEncryptionProviderBase {
 
             // Set the request object only in case when request data is sent
             if (decryptedData.length != 0) {
-                encryptorData.setRequestObject(deserializeRequestData(decryptedData, requestType));
+                deserializeRequestData(decryptedData, requestType, encryptorData);
             }
 
             // Set encryption object in HTTP servlet request
@@ -229,22 +273,27 @@ public abstract class PowerAuthEncryptionProviderBase {
     }
     
     /**
-     * Convert byte[] request data to Object with given type.
+     * Convert byte[] request data to Object with given type and store it in the encryptor data, together
+     * with the resolved type, so that the request object can be reused by the argument resolver.
      *
      * @param requestData Raw request data.
      * @param requestType Request type.
-     * @return Request object.
+     * @param encryptorData Encryptor data.
      * @throws IOException In case request object could not be deserialized.
      */
-    private Object deserializeRequestData(byte[] requestData, Type requestType) throws IOException {
+    private void deserializeRequestData(byte[] requestData, Type requestType, PowerAuthEncryptorData encryptorData) throws IOException {
         if (requestType.equals(byte[].class)) {
             // Raw byte[] data without deserialization from JSON
-            return requestData;
+            encryptorData.setRequestObject(requestData);
+            return;
         }
-        // Object is deserialized from JSON based on request type
-        final TypeFactory typeFactory = objectMapper.getTypeFactory();
-        final JavaType requestJavaType = typeFactory.constructType(requestType);
-        return objectMapper.readValue(requestData, requestJavaType);
+        // Object is deserialized from JSON based on request type, the type is already resolved in case
+        // the request is decrypted by the annotation interceptor
+        final JavaType requestJavaType = requestType instanceof final JavaType javaType
+                ? javaType
+                : getJsonSerializationService().constructType(requestType);
+        encryptorData.setRequestObject(getJsonSerializationService().readValue(requestData, requestJavaType));
+        encryptorData.setRequestType(requestJavaType);
     }
 
     /**
@@ -260,7 +309,7 @@ public abstract class PowerAuthEncryptionProviderBase {
             return (byte[]) responseObject;
         } else {
             // Object is serialized to JSON
-            return objectMapper.writeValueAsBytes(responseObject);
+            return getJsonSerializationService().writeValueAsBytes(responseObject);
         }
     }
 
@@ -321,4 +370,18 @@ public abstract class PowerAuthEncryptionProviderBase {
             return new EncryptionContext(applicationKey, activationId, version, header, encryptorScope);
         }
     }
+
+    /**
+     * Get JSON serialization service, the default service is created only in case no service was set.
+     * @return JSON serialization service.
+     */
+    private JsonSerializationService getJsonSerializationService() {
+        JsonSerializationService service = jsonSerializationService;
+        if (service == null) {
+            service = new JsonSerializationService();
+            jsonSerializationService = service;
+        }
+        return service;
+    }
+
 }
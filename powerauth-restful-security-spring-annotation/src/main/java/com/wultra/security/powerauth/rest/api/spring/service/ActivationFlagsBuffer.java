@@ -0,0 +1,305 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import com.wultra.security.powerauth.client.PowerAuthClient;
+import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
+import com.wultra.security.powerauth.client.model.request.AddActivationFlagsRequest;
+import com.wultra.security.powerauth.rest.api.spring.configuration.PowerAuthActivationFlagsConfigurationProperties;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service writing activation flags to PowerAuth server.
+ * <p>
+ * In case buffering is enabled, flags are buffered per activation and written in the background once per flush
+ * interval, flags added to the same activation in the meantime are coalesced into a single call. Buffered flags
+ * are merged into activation flags read on this node until they are written, so that subsequent requests see
+ * the flags. Other nodes do not see the flags until they are written. In case too many activations have buffered
+ * flags, the flags are written synchronously. Flags of an activation are written synchronously before the activation
+ * is committed, see {@link #flushActivationFlags(String)}.
+ * <p>
+ * Buffered flags are never discarded, failed writes are retried with exponential backoff until they succeed.
+ * Failures after the configured number of attempts are logged as errors.
+ * <p>
+ * Note that PowerAuth server does not provide a call adding flags of multiple activations, so each activation
+ * with buffered flags still results in a separate call.
+ */
+@Service
+public class ActivationFlagsBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivationFlagsBuffer.class);
+
+    private final PowerAuthClient powerAuthClient;
+    private final HttpCustomizationService httpCustomizationService;
+    private final PowerAuthActivationFlagsConfigurationProperties.Buffer configuration;
+
+    // Buffered flags keyed by activation ID, entries are immutable and replaced on change
+    private final Map<String, PendingFlags> pendingFlags = new ConcurrentHashMap<>();
+
+    // Serializes the scheduled and the final flush, so that the same flags are not written concurrently
+    private final Object flushLock = new Object();
+
+    private final LongAdder bufferedWrites = new LongAdder();
+    private final LongAdder flushedWrites = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private final LongAdder synchronousWrites = new LongAdder();
+
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
+    private ScheduledExecutorService flushScheduler;
+
+    /**
+     * Service constructor.
+     * @param powerAuthClient PowerAuth client.
+     * @param httpCustomizationService HTTP customization service.
+     * @param configurationProperties Activation flags configuration properties.
+     */
+    @Autowired
+    public ActivationFlagsBuffer(PowerAuthClient powerAuthClient, HttpCustomizationService httpCustomizationService, PowerAuthActivationFlagsConfigurationProperties configurationProperties) {
+        this.powerAuthClient = powerAuthClient;
+        this.httpCustomizationService = httpCustomizationService;
+        this.configuration = configurationProperties.getBuffer();
+    }
+
+    /**
+     * Set metrics of PowerAuth server calls, the buffer statistics are registered for monitoring.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+        clientMetrics.monitorCounter("powerauth.activation.flags.buffered", "Activation flag writes added to the buffer", bufferedWrites::sum);
+        clientMetrics.monitorCounter("powerauth.activation.flags.flushed", "Buffered activation flag writes sent to PowerAuth server", flushedWrites::sum);
+        clientMetrics.monitorCounter("powerauth.activation.flags.failures", "Failed writes of buffered activation flags", failedWrites::sum);
+        clientMetrics.monitorCounter("powerauth.activation.flags.synchronous", "Activation flag writes sent synchronously due to a full buffer", synchronousWrites::sum);
+        clientMetrics.monitorCounter("powerauth.activation.flags.pending", "Activations with activation flags not written yet", pendingFlags::size);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("powerauth-activation-flags-");
+        threadFactory.setDaemon(true);
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        final long flushInterval = configuration.getFlushInterval().toMillis();
+        flushScheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void close() {
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+            try {
+                flushScheduler.awaitTermination(configuration.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            // Write the remaining flags before shutdown, waits for a scheduled flush still in progress
+            flush(true);
+            pendingFlags.forEach((activationId, pending) ->
+                    logger.error("Activation flags were not written before shutdown, activation ID: {}, flags: {}", activationId, pending.flags()));
+        }
+    }
+
+    /**
+     * Add activation flags. The flags are buffered in case buffering is enabled and the buffer is not full,
+     * otherwise they are written synchronously.
+     *
+     * @param activationId Activation ID.
+     * @param activationFlags Activation flags.
+     * @throws PowerAuthClientException In case the flags are written synchronously and the call fails.
+     */
+    public void addActivationFlags(String activationId, List<String> activationFlags) throws PowerAuthClientException {
+        if (flushScheduler != null) {
+            final boolean buffered = pendingFlags.containsKey(activationId) || pendingFlags.size() < configuration.getMaximumPendingActivations();
+            if (buffered) {
+                final Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+                pendingFlags.merge(activationId, new PendingFlags(Collections.unmodifiableSet(new LinkedHashSet<>(activationFlags)), 0, 0L, mdcContext), PendingFlags::merge);
+                bufferedWrites.increment();
+                return;
+            }
+            synchronousWrites.increment();
+        }
+        writeActivationFlags(activationId, activationFlags);
+    }
+
+    /**
+     * Write buffered flags of given activation synchronously, e.g. before the activation is committed, so that
+     * the activation is never usable without its flags.
+     *
+     * @param activationId Activation ID.
+     * @throws PowerAuthClientException In case the call fails, the flags stay buffered.
+     */
+    public void flushActivationFlags(String activationId) throws PowerAuthClientException {
+        final PendingFlags pending = pendingFlags.get(activationId);
+        if (pending == null) {
+            return;
+        }
+        writeActivationFlags(activationId, new ArrayList<>(pending.flags()));
+        flushedWrites.increment();
+        // Keep flags added during the write buffered, written flags are removed
+        pendingFlags.computeIfPresent(activationId, (id, current) -> current.without(pending.flags()));
+    }
+
+    /**
+     * Merge activation flags which were not written to PowerAuth server yet into activation flags read from the server.
+     *
+     * @param activationId Activation ID.
+     * @param activationFlags Activation flags read from PowerAuth server.
+     * @return Activation flags including the buffered flags. The original list is returned in case no flags are buffered.
+     */
+    public List<String> mergePendingFlags(String activationId, List<String> activationFlags) {
+        if (activationId == null || pendingFlags.isEmpty()) {
+            return activationFlags;
+        }
+        final PendingFlags pending = pendingFlags.get(activationId);
+        if (pending == null) {
+            return activationFlags;
+        }
+        final Set<String> merged = new LinkedHashSet<>();
+        if (activationFlags != null) {
+            merged.addAll(activationFlags);
+        }
+        merged.addAll(pending.flags());
+        return new ArrayList<>(merged);
+    }
+
+    /**
+     * Write buffered flags to PowerAuth server, flags waiting for a retry are skipped.
+     */
+    void flush() {
+        flush(false);
+    }
+
+    /**
+     * Write buffered flags to PowerAuth server. Flushes do not run concurrently, a flush waits for the flush
+     * in progress to finish.
+     *
+     * @param force Whether flags waiting for a retry are written as well.
+     */
+    void flush(boolean force) {
+        synchronized (flushLock) {
+            flushPendingFlags(force);
+        }
+    }
+
+    private void flushPendingFlags(boolean force) {
+        final long now = System.currentTimeMillis();
+        for (Map.Entry<String, PendingFlags> entry : pendingFlags.entrySet()) {
+            final String activationId = entry.getKey();
+            final PendingFlags pending = entry.getValue();
+            if (!force && pending.retryAt() > now) {
+                continue;
+            }
+            final Map<String, String> previousContext = MDC.getCopyOfContextMap();
+            setMdcContext(pending.mdcContext());
+            try {
+                writeActivationFlags(activationId, new ArrayList<>(pending.flags()));
+                flushedWrites.increment();
+                // Keep flags added during the write buffered, written flags are removed
+                pendingFlags.computeIfPresent(activationId, (id, current) -> current.without(pending.flags()));
+            } catch (Exception ex) {
+                failedWrites.increment();
+                final int attempts = pending.attempts() + 1;
+                final Duration delay = retryDelay(attempts);
+                if (attempts >= configuration.getMaxAttempts()) {
+                    logger.error("Writing activation flags failed repeatedly, activation ID: {}, flags: {}, attempt: {}, retry in: {}, error: {}", activationId, pending.flags(), attempts, delay, ex.getMessage());
+                } else {
+                    logger.warn("Writing activation flags failed, activation ID: {}, attempt: {}, retry in: {}, error: {}", activationId, attempts, delay, ex.getMessage());
+                }
+                logger.debug("Error details", ex);
+                pendingFlags.computeIfPresent(activationId, (id, current) -> current.withAttempts(attempts, now + delay.toMillis()));
+            } finally {
+                setMdcContext(previousContext);
+            }
+        }
+    }
+
+    private Duration retryDelay(int attempts) {
+        final Duration backoff = configuration.getFlushInterval().multipliedBy(1L << Math.min(attempts - 1, 20));
+        final Duration maxBackoff = configuration.getMaxRetryBackoff();
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void writeActivationFlags(String activationId, List<String> activationFlags) throws PowerAuthClientException {
+        final AddActivationFlagsRequest flagsRequest = new AddActivationFlagsRequest();
+        flagsRequest.setActivationId(activationId);
+        flagsRequest.getActivationFlags().addAll(activationFlags);
+        clientMetrics.record("addActivationFlags",
+                () -> powerAuthClient.addActivationFlags(
+                        flagsRequest,
+                        httpCustomizationService.getQueryParams(),
+                        httpCustomizationService.getHttpHeaders()
+                ));
+    }
+
+    private static void setMdcContext(Map<String, String> context) {
+        if (context != null) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * Buffered flags of an activation.
+     * @param flags Flags.
+     * @param attempts Number of failed write attempts.
+     * @param retryAt Time of the next write attempt in milliseconds since epoch, zero in case the flags were not written yet.
+     * @param mdcContext Logging context of the last request adding flags, used for the correlation header.
+     */
+    private record PendingFlags(Set<String> flags, int attempts, long retryAt, Map<String, String> mdcContext) {
+
+        PendingFlags merge(PendingFlags other) {
+            final Set<String> merged = new LinkedHashSet<>(flags);
+            merged.addAll(other.flags());
+            return new PendingFlags(Collections.unmodifiableSet(merged), attempts, retryAt, other.mdcContext());
+        }
+
+        PendingFlags without(Set<String> written) {
+            final Set<String> remaining = new LinkedHashSet<>(flags);
+            remaining.removeAll(written);
+            return remaining.isEmpty() ? null : new PendingFlags(Collections.unmodifiableSet(remaining), 0, 0L, mdcContext);
+        }
+
+        PendingFlags withAttempts(int attempts, long retryAt) {
+            return new PendingFlags(flags, attempts, retryAt, mdcContext);
+        }
+    }
+
+}
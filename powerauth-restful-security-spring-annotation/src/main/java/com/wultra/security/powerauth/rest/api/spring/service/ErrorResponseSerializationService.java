@@ -0,0 +1,76 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.wultra.core.rest.model.base.response.ErrorResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service serializing bodies of constant error responses, e.g. for components writing the error response
+ * directly to the servlet response. The service does not cache the bodies, callers with a constant error
+ * serialize the body once and keep it, so that the memory used is limited to the fixed set of such errors.
+ */
+@Service
+public class ErrorResponseSerializationService {
+
+    private volatile JsonSerializationService jsonSerializationService;
+
+    /**
+     * Service constructor with default JSON serialization, the default JSON serialization service is created
+     * on first use.
+     */
+    public ErrorResponseSerializationService() {
+    }
+
+    /**
+     * Service constructor.
+     * @param jsonSerializationService JSON serialization service.
+     */
+    @Autowired
+    public ErrorResponseSerializationService(JsonSerializationService jsonSerializationService) {
+        this.jsonSerializationService = jsonSerializationService;
+    }
+
+    /**
+     * Serialize body of an error response.
+     * @param code Error code.
+     * @param message Error message.
+     * @return Serialized error response.
+     */
+    public byte[] getErrorResponseBody(String code, String message) {
+        try {
+            return getJsonSerializationService().writeValueAsBytes(new ErrorResponse(code, message));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Error response serialization failed", ex);
+        }
+    }
+
+    private JsonSerializationService getJsonSerializationService() {
+        JsonSerializationService service = jsonSerializationService;
+        if (service == null) {
+            service = new JsonSerializationService();
+            jsonSerializationService = service;
+        }
+        return service;
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.wultra.security.powerauth.rest.api.spring.configuration.PowerAuthJsonConfigurationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for JSON serialization of PowerAuth requests and responses. A single object mapper is shared by all
+ * PowerAuth components, readers and writers are cached per type.
+ * <p>
+ * The object mapper is independent of the application object mapper, so that the format of PowerAuth requests
+ * and responses does not change with the application Jackson configuration.
+ */
+@Service
+public class JsonSerializationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonSerializationService.class);
+
+    private static final String BLACKBIRD_MODULE_CLASS = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * Service constructor with default configuration.
+     */
+    public JsonSerializationService() {
+        this(new PowerAuthJsonConfigurationProperties());
+    }
+
+    /**
+     * Service constructor.
+     * @param configurationProperties JSON configuration properties.
+     */
+    @Autowired
+    public JsonSerializationService(PowerAuthJsonConfigurationProperties configurationProperties) {
+        if (configurationProperties.isBlackbirdEnabled()) {
+            registerBlackbird();
+        }
+    }
+
+    /**
+     * Get the shared object mapper.
+     * @return Object mapper.
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Construct Java type for the given type.
+     * @param type Type.
+     * @return Java type.
+     */
+    public JavaType constructType(Type type) {
+        return objectMapper.getTypeFactory().constructType(type);
+    }
+
+    /**
+     * Deserialize JSON data.
+     * @param data JSON data.
+     * @param type Type of the result.
+     * @param <T> Type of the result.
+     * @return Deserialized object.
+     * @throws IOException In case deserialization fails.
+     */
+    public <T> T readValue(byte[] data, Class<T> type) throws IOException {
+        return readValue(data, constructType(type));
+    }
+
+    /**
+     * Deserialize JSON data.
+     * @param data JSON data.
+     * @param type Type of the result.
+     * @param <T> Type of the result.
+     * @return Deserialized object.
+     * @throws IOException In case deserialization fails.
+     */
+    public <T> T readValue(byte[] data, JavaType type) throws IOException {
+        return readers.computeIfAbsent(type, objectMapper::readerFor).readValue(data);
+    }
+
+    /**
+     * Serialize object to JSON.
+     * @param value Object to serialize.
+     * @return JSON data.
+     * @throws JsonProcessingException In case serialization fails.
+     */
+    public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+        if (value == null) {
+            return objectMapper.writeValueAsBytes(null);
+        }
+        return writers.computeIfAbsent(value.getClass(), objectMapper::writerFor).writeValueAsBytes(value);
+    }
+
+    /**
+     * Convert object to the given type, e.g. a map to a typed object.
+     * @param value Object to convert.
+     * @param type Type of the result.
+     * @param <T> Type of the result.
+     * @return Converted object.
+     * @throws IllegalArgumentException In case conversion fails.
+     */
+    public <T> T convertValue(Object value, Class<T> type) {
+        return objectMapper.convertValue(value, type);
+    }
+
+    private void registerBlackbird() {
+        try {
+            final Module module = (Module) Class.forName(BLACKBIRD_MODULE_CLASS).getDeclaredConstructor().newInstance();
+            objectMapper.registerModule(module);
+            logger.info("Jackson Blackbird module registered");
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            logger.warn("Jackson Blackbird module is not available, error: {}", ex.getMessage());
+            logger.debug("Error details", ex);
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared default executor for asynchronous processing, used in case no executor bean is configured.
+ * <p>
+ * Virtual threads are used on Java 21 and newer. On older Java versions, a bounded pool of daemon platform threads
+ * is used and tasks exceeding the pool and its queue run on the calling thread, so that the number of threads does
+ * not grow with the load.
+ */
+public final class PowerAuthDefaultExecutor {
+
+    private static final boolean VIRTUAL_THREADS = Runtime.version().feature() >= 21;
+
+    private static final int QUEUE_CAPACITY = 100;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private PowerAuthDefaultExecutor() {
+    }
+
+    /**
+     * Get the shared default executor, the executor is created on first access.
+     * @return Default executor.
+     */
+    public static Executor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Check whether the default executor uses virtual threads.
+     * @return True on Java 21 and newer.
+     */
+    public static boolean isVirtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+
+    private static final class Holder {
+
+        private static final Executor INSTANCE = createExecutor();
+
+        private static Executor createExecutor() {
+            if (VIRTUAL_THREADS) {
+                final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("powerauth-");
+                executor.setVirtualThreads(true);
+                return executor;
+            }
+            final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("powerauth-");
+            threadFactory.setDaemon(true);
+            final int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.annotation.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test for {@link PowerAuthHandlerSecurityPlan.ResourceIdTemplate}.
+ */
+class PowerAuthHandlerSecurityPlanTest {
+
+    @Test
+    void testExpandConstantTemplate() throws Exception {
+        assertEquals("/payment/approve", expand("/payment/approve", request()));
+    }
+
+    @Test
+    void testExpandPlaceholders() throws Exception {
+        final MockHttpServletRequest request = request();
+        request.setParameter("id", "123");
+        pathVariable(request, "type", "domestic");
+        assertEquals("/payment/domestic/123", expand("/payment/${type}/${id}", request));
+        assertEquals("123", expand("${id}", request));
+    }
+
+    @Test
+    void testExpandRequestParamPrecedence() throws Exception {
+        final MockHttpServletRequest request = request();
+        pathVariable(request, "name", "path");
+        assertEquals("/resource/path", expand("/resource/${name}", request));
+        request.setParameter("name", "param");
+        assertEquals("/resource/param", expand("/resource/${name}", request));
+    }
+
+    @Test
+    void testExpandUnresolvedPlaceholders() throws Exception {
+        final MockHttpServletRequest request = request();
+        request.setParameter("unbound", "value");
+        assertEquals("/payment/${id}", expand("/payment/${id}", request));
+        assertEquals("/payment/${unbound}", expand("/payment/${unbound}", request));
+    }
+
+    @Test
+    void testExpandEscapedPlaceholder() throws Exception {
+        final MockHttpServletRequest request = request();
+        request.setParameter("id", "123");
+        assertEquals("/payment/${id}", expand("/payment/$${id}", request));
+        assertEquals("/payment/${id}/123", expand("/payment/$${id}/${id}", request));
+    }
+
+    @Test
+    void testExpandDefaultValue() throws Exception {
+        final MockHttpServletRequest request = request();
+        assertEquals("/payment/none", expand("/payment/${id:-none}", request));
+        request.setParameter("id", "123");
+        assertEquals("/payment/123", expand("/payment/${id:-none}", request));
+    }
+
+    @Test
+    void testExpandNestedPlaceholders() throws Exception {
+        final MockHttpServletRequest request = request();
+        request.setParameter("id", "${type}");
+        pathVariable(request, "type", "domestic");
+        assertEquals("/payment/domestic", expand("/payment/${id}", request));
+    }
+
+    private static String expand(String template, MockHttpServletRequest request) throws Exception {
+        final HandlerMethod handlerMethod = new HandlerMethod(new TestController(),
+                TestController.class.getMethod("resource", String.class, String.class, String.class, String.class));
+        final MethodParameter[] methodParameters = handlerMethod.getMethodParameters();
+        return PowerAuthHandlerSecurityPlan.ResourceIdTemplate.compile(template, methodParameters).expand(request);
+    }
+
+    private static MockHttpServletRequest request() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, new HashMap<String, String>());
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void pathVariable(MockHttpServletRequest request, String name, String value) {
+        ((Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).put(name, value);
+    }
+
+    static class TestController {
+
+        public void resource(@RequestParam(name = "id") String id,
+                             @PathVariable(name = "type") String type,
+                             @RequestParam(name = "name") String nameParam,
+                             @PathVariable(name = "name") String namePath) {
+        }
+
+    }
+
+}
@@ -0,0 +1,308 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.filter;
+
+import com.wultra.security.powerauth.http.PowerAuthSignatureHttpHeader;
+import com.wultra.security.powerauth.rest.api.spring.model.PowerAuthRequestBody;
+import com.wultra.security.powerauth.rest.api.spring.model.PowerAuthRequestObjects;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link PowerAuthAsyncRequestFilter}.
+ */
+class PowerAuthAsyncRequestFilterTest {
+
+    private static final long MAX_REQUEST_BODY_SIZE = 8;
+
+    private final PowerAuthAsyncRequestFilter tested = new PowerAuthAsyncRequestFilter(MAX_REQUEST_BODY_SIZE, Duration.ofSeconds(5));
+
+    private final TestServletInputStream inputStream = new TestServletInputStream();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final MockFilterChain filterChain = new MockFilterChain();
+
+    @Test
+    void testCompleteBody_dispatched() throws Exception {
+        final AsyncRequest request = createRequest(4);
+
+        tested.doFilter(request, response, filterChain);
+
+        assertTrue(request.isAsyncStarted());
+        assertEquals(5000, asyncContext(request).getTimeout());
+        assertNotNull(inputStream.readListener, "Request body must be read using a read listener");
+        assertNull(filterChain.getRequest(), "Request must not be processed before the body is read");
+
+        inputStream.append("ab");
+        inputStream.readListener.onDataAvailable();
+        inputStream.append("cd");
+        inputStream.finish();
+        inputStream.readListener.onDataAvailable();
+        inputStream.readListener.onAllDataRead();
+
+        assertNotNull(asyncContext(request).getDispatchedPath(), "Request must be dispatched once the body is read");
+        final PowerAuthRequestBody requestBody = (PowerAuthRequestBody) request.getAttribute(PowerAuthRequestObjects.REQUEST_BODY);
+        assertNotNull(requestBody);
+        assertArrayEquals("abcd".getBytes(StandardCharsets.UTF_8), requestBody.getRequestBytes());
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    }
+
+    @Test
+    void testOversizedBody_contentLength() throws Exception {
+        final AsyncRequest request = createRequest(MAX_REQUEST_BODY_SIZE + 1);
+
+        tested.doFilter(request, response, filterChain);
+
+        assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, response.getStatus());
+        assertFalse(request.isAsyncStarted(), "Request must be rejected before the asynchronous processing is started");
+        assertNull(inputStream.readListener);
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void testOversizedBody_streamed() throws Exception {
+        // Content length is not known up-front, e.g. chunked transfer encoding
+        final AsyncRequest request = createRequest(-1);
+
+        tested.doFilter(request, response, filterChain);
+
+        inputStream.append("abcdef");
+        inputStream.readListener.onDataAvailable();
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+
+        inputStream.append("ghi");
+        inputStream.readListener.onDataAvailable();
+
+        assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, response.getStatus());
+        assertFalse(request.isAsyncStarted(), "Asynchronous processing must be completed");
+
+        // Callbacks after the rejection are ignored
+        inputStream.finish();
+        inputStream.readListener.onAllDataRead();
+        assertNull(asyncContext(request).getDispatchedPath());
+        assertNull(request.getAttribute(PowerAuthRequestObjects.REQUEST_BODY));
+    }
+
+    @Test
+    void testTimeout() throws Exception {
+        final AsyncRequest request = createRequest(4);
+
+        tested.doFilter(request, response, filterChain);
+
+        final MockAsyncContext asyncContext = asyncContext(request);
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        assertEquals(HttpServletResponse.SC_REQUEST_TIMEOUT, response.getStatus());
+        assertFalse(request.isAsyncStarted(), "Asynchronous processing must be completed");
+
+        // Data arriving after the timeout is ignored
+        inputStream.append("abcd");
+        inputStream.finish();
+        inputStream.readListener.onDataAvailable();
+        inputStream.readListener.onAllDataRead();
+        inputStream.readListener.onError(new IOException("Connection reset"));
+        assertNull(asyncContext.getDispatchedPath());
+        assertEquals(HttpServletResponse.SC_REQUEST_TIMEOUT, response.getStatus());
+    }
+
+    @Test
+    void testReadError() throws Exception {
+        final AsyncRequest request = createRequest(4);
+
+        tested.doFilter(request, response, filterChain);
+
+        inputStream.append("ab");
+        inputStream.readListener.onDataAvailable();
+        inputStream.readListener.onError(new IOException("Connection reset"));
+
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+        assertFalse(request.isAsyncStarted(), "Asynchronous processing must be completed");
+
+        // Timeout after the error is ignored
+        final MockAsyncContext asyncContext = asyncContext(request);
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+        assertNull(asyncContext.getDispatchedPath());
+    }
+
+    @Test
+    void testTimeoutAfterDispatch_ignored() throws Exception {
+        final AsyncRequest request = createRequest(4);
+
+        tested.doFilter(request, response, filterChain);
+
+        inputStream.append("abcd");
+        inputStream.finish();
+        inputStream.readListener.onDataAvailable();
+        inputStream.readListener.onAllDataRead();
+
+        final MockAsyncContext asyncContext = asyncContext(request);
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        assertNotNull(asyncContext.getDispatchedPath());
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    }
+
+    @Test
+    void testAsyncDispatch_skipped() throws Exception {
+        final AsyncRequest request = createRequest(4);
+        request.setDispatcherType(DispatcherType.ASYNC);
+
+        tested.doFilter(request, response, filterChain);
+
+        assertSame(request, filterChain.getRequest(), "Asynchronous dispatch must be passed to the filter chain unchanged");
+        assertFalse(request.isAsyncStarted());
+        assertNull(inputStream.readListener, "Request body must not be read again");
+    }
+
+    @Test
+    void testRequestWithoutPowerAuthHeader_filteredSynchronously() throws Exception {
+        final AsyncRequest request = createRequest(4);
+        request.removeHeader(PowerAuthSignatureHttpHeader.HEADER_NAME);
+
+        tested.doFilter(request, response, filterChain);
+
+        assertFalse(request.isAsyncStarted());
+        assertNull(inputStream.readListener);
+        assertNotNull(filterChain.getRequest());
+        assertNotNull(request.getAttribute(PowerAuthRequestObjects.REQUEST_BODY));
+    }
+
+    private AsyncRequest createRequest(long contentLength) {
+        final AsyncRequest request = new AsyncRequest(inputStream, contentLength);
+        request.setMethod("POST");
+        request.setRequestURI("/pa/v3/test");
+        request.setAsyncSupported(true);
+        request.addHeader(PowerAuthSignatureHttpHeader.HEADER_NAME, "PowerAuth pa_activation_id=\"test\"");
+        return request;
+    }
+
+    private static MockAsyncContext asyncContext(MockHttpServletRequest request) {
+        final MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        assertNotNull(asyncContext, "Asynchronous processing must be started");
+        return asyncContext;
+    }
+
+    /**
+     * Request with a non-blocking input stream and a configurable content length.
+     */
+    private static class AsyncRequest extends MockHttpServletRequest {
+
+        private final ServletInputStream inputStream;
+        private final long contentLength;
+
+        AsyncRequest(ServletInputStream inputStream, long contentLength) {
+            this.inputStream = inputStream;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return contentLength;
+        }
+
+        @Override
+        public int getContentLength() {
+            return (int) contentLength;
+        }
+    }
+
+    /**
+     * Non-blocking input stream, the data is made available by the test and the read listener callbacks
+     * are invoked by the test as the servlet container would do.
+     */
+    private static class TestServletInputStream extends ServletInputStream {
+
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        private int position;
+        private boolean completed;
+        private ReadListener readListener;
+
+        void append(String value) {
+            data.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void finish() {
+            completed = true;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return completed && position == data.size();
+        }
+
+        @Override
+        public boolean isReady() {
+            return position < data.size() || completed;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.readListener = readListener;
+        }
+
+        @Override
+        public int read() {
+            if (position == data.size()) {
+                return -1;
+            }
+            return data.toByteArray()[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            final int available = data.size() - position;
+            if (available == 0) {
+                return -1;
+            }
+            final int read = Math.min(available, len);
+            System.arraycopy(data.toByteArray(), position, b, off, read);
+            position += read;
+            return read;
+        }
+    }
+
+}
@@ -0,0 +1,420 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.provider;
+
+import com.wultra.security.powerauth.client.PowerAuthClient;
+import com.wultra.security.powerauth.client.model.enumeration.ActivationStatus;
+import com.wultra.security.powerauth.client.model.enumeration.SignatureType;
+import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
+import com.wultra.security.powerauth.client.model.request.ValidateTokenRequest;
+import com.wultra.security.powerauth.client.model.response.ValidateTokenResponse;
+import com.wultra.security.powerauth.client.model.response.VerifySignatureResponse;
+import com.wultra.security.powerauth.rest.api.spring.authentication.impl.PowerAuthSignatureAuthenticationImpl;
+import com.wultra.security.powerauth.rest.api.spring.authentication.impl.PowerAuthTokenAuthenticationImpl;
+import com.wultra.security.powerauth.rest.api.spring.configuration.PowerAuthAuthenticationConfigurationProperties;
+import com.wultra.security.powerauth.rest.api.spring.converter.ActivationStatusConverter;
+import com.wultra.security.powerauth.rest.api.spring.service.HttpCustomizationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link PowerAuthAuthenticationProvider}.
+ */
+@ExtendWith(MockitoExtension.class)
+class PowerAuthAuthenticationProviderTest {
+
+    private static final String TOKEN_ID = "d6561669-34d6-4fee-8913-89477687a5cb";
+    private static final String TOKEN_DIGEST = "+Nr3WB+CeX1GbdyLuk9FHHKCYXXV4ZnMB3hnT0IgM3w=";
+    private static final String NONCE = "U2ApOuaDW0RH2tO6+ejBsw==";
+    private static final String TIMESTAMP = "1767225600000";
+    private static final String VERSION = "3.2";
+
+    @Mock
+    private PowerAuthClient powerAuthClient;
+
+    private final PowerAuthAuthenticationConfigurationProperties configurationProperties = new PowerAuthAuthenticationConfigurationProperties();
+
+    @Test
+    void testTokenCoalescing_disabledByDefault() throws Exception {
+        assertFalse(configurationProperties.getTokenCoalescing().isEnabled());
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        final CountDownLatch release = new CountDownLatch(1);
+        when(powerAuthClient.validateToken(any(), any(), any())).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return response(true, ActivationStatus.ACTIVE);
+        });
+
+        final Validation first = authenticateAsync(tested, tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        final Validation second = authenticateAsync(tested, tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+
+        // Both identical validations reach PowerAuth server while the first one is still in progress
+        verify(powerAuthClient, timeout(5_000).times(2)).validateToken(any(), any(), any());
+        release.countDown();
+        assertNotNull(first.get());
+        assertNotNull(second.get());
+    }
+
+    @Test
+    void testTokenCoalescing_concurrentIdenticalValidationsShareServerCall() throws Exception {
+        configurationProperties.getTokenCoalescing().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(powerAuthClient.validateToken(any(), any(), any())).thenAnswer(invocation -> {
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return response(true, ActivationStatus.ACTIVE);
+        });
+
+        final Validation first = authenticateAsync(tested, tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        final Validation second = authenticateAsync(tested, tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        // The second validation waits for the result of the first one
+        second.awaitWaiting();
+        release.countDown();
+
+        final Authentication firstAuthentication = first.get();
+        final Authentication secondAuthentication = second.get();
+        assertNotNull(firstAuthentication);
+        assertNotNull(secondAuthentication);
+        assertNotSame(firstAuthentication, secondAuthentication);
+        verify(powerAuthClient, times(1)).validateToken(any(), any(), any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"digest", "nonce", "timestamp"})
+    void testTokenCoalescing_differentHeaderValuesNotShared(final String differentValue) throws Exception {
+        configurationProperties.getTokenCoalescing().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        final CountDownLatch release = new CountDownLatch(1);
+        when(powerAuthClient.validateToken(any(), any(), any())).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return response(true, ActivationStatus.ACTIVE);
+        });
+
+        final PowerAuthTokenAuthenticationImpl otherAuthentication = switch (differentValue) {
+            case "digest" -> tokenAuthentication("Dvn9qmk2XyHcnpmmZkzpHsV0wHNSRUC1bYZ/MdvDODg=", NONCE, TIMESTAMP);
+            case "nonce" -> tokenAuthentication(TOKEN_DIGEST, "7SeHVT5UPvBfNl2hpYCGMw==", TIMESTAMP);
+            default -> tokenAuthentication(TOKEN_DIGEST, NONCE, "1767225600001");
+        };
+        final Validation first = authenticateAsync(tested, tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        final Validation second = authenticateAsync(tested, otherAuthentication);
+
+        verify(powerAuthClient, timeout(5_000).times(2)).validateToken(any(), any(), any());
+        release.countDown();
+        assertNotNull(first.get());
+        assertNotNull(second.get());
+
+        final ArgumentCaptor<ValidateTokenRequest> requestCaptor = ArgumentCaptor.forClass(ValidateTokenRequest.class);
+        verify(powerAuthClient, times(2)).validateToken(requestCaptor.capture(), any(), any());
+        assertNotEquals(requestCaptor.getAllValues().get(0), requestCaptor.getAllValues().get(1));
+    }
+
+    @Test
+    void testTokenCoalescing_inFlightValidationRemovedAfterSuccess() throws Exception {
+        configurationProperties.getTokenCoalescing().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any())).thenReturn(response(true, ActivationStatus.ACTIVE));
+
+        assertNotNull(tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP)));
+        assertNotNull(tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP)));
+
+        // A finished validation is never shared, the replayed header reaches PowerAuth server
+        verify(powerAuthClient, times(2)).validateToken(any(), any(), any());
+    }
+
+    @Test
+    void testTokenCoalescing_inFlightValidationRemovedAfterFailure() throws Exception {
+        configurationProperties.getTokenCoalescing().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any()))
+                .thenThrow(new PowerAuthClientException("Server unavailable"))
+                .thenReturn(response(true, ActivationStatus.ACTIVE));
+
+        assertNull(tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP)));
+        assertNotNull(tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP)));
+
+        verify(powerAuthClient, times(2)).validateToken(any(), any(), any());
+    }
+
+    @Test
+    void testTokenCoalescing_failureSharedWithWaitingValidations() throws Exception {
+        configurationProperties.getTokenCoalescing().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(powerAuthClient.validateToken(any(), any(), any())).thenAnswer(invocation -> {
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw new PowerAuthClientException("Server unavailable");
+        });
+
+        final Validation first = authenticateAsync(tested, tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        final Validation second = authenticateAsync(tested, tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        second.awaitWaiting();
+        release.countDown();
+
+        assertNull(first.get());
+        assertNull(second.get());
+        verify(powerAuthClient, times(1)).validateToken(any(), any(), any());
+    }
+
+    @Test
+    void testNegativeCache_disabledByDefault() throws Exception {
+        assertFalse(configurationProperties.getNegativeCache().isEnabled());
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any())).thenReturn(response(false, ActivationStatus.REMOVED));
+
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+
+        verify(powerAuthClient, times(2)).validateToken(any(), any(), any());
+    }
+
+    @Test
+    void testNegativeCache_removedActivationTokenCached() throws Exception {
+        configurationProperties.getNegativeCache().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any())).thenReturn(response(false, ActivationStatus.REMOVED));
+
+        final Authentication first = tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        final Authentication second = tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+
+        verify(powerAuthClient, times(1)).validateToken(any(), any(), any());
+        assertNotSame(first, second);
+        assertEquals(1, tested.getTokenNegativeCacheStats().hitCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ActivationStatus.class, names = {"CREATED", "PENDING_COMMIT", "ACTIVE", "BLOCKED"})
+    void testNegativeCache_otherActivationStatusNotCached(final ActivationStatus activationStatus) throws Exception {
+        configurationProperties.getNegativeCache().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any())).thenReturn(response(false, activationStatus));
+
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+
+        verify(powerAuthClient, times(2)).validateToken(any(), any(), any());
+    }
+
+    @Test
+    void testNegativeCache_validTokenNotCached() throws Exception {
+        configurationProperties.getNegativeCache().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any())).thenReturn(response(true, ActivationStatus.ACTIVE));
+
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+
+        verify(powerAuthClient, times(2)).validateToken(any(), any(), any());
+    }
+
+    @Test
+    void testNegativeCache_removedActivationSignatureCached() throws Exception {
+        configurationProperties.getNegativeCache().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.verifySignature(any(), any(), any())).thenReturn(signatureResponse(ActivationStatus.REMOVED));
+
+        tested.authenticate(signatureAuthentication());
+        tested.authenticate(signatureAuthentication());
+
+        verify(powerAuthClient, times(1)).verifySignature(any(), any(), any());
+        assertEquals(1, tested.getSignatureNegativeCacheStats().hitCount());
+    }
+
+    @Test
+    void testNegativeCache_blockedActivationSignatureNotCached() throws Exception {
+        configurationProperties.getNegativeCache().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.verifySignature(any(), any(), any())).thenReturn(signatureResponse(ActivationStatus.BLOCKED));
+
+        tested.authenticate(signatureAuthentication());
+        tested.authenticate(signatureAuthentication());
+
+        verify(powerAuthClient, times(2)).verifySignature(any(), any(), any());
+    }
+
+    @Test
+    void testNegativeCache_expiresAfterTtl() throws Exception {
+        configurationProperties.getNegativeCache().setEnabled(true);
+        configurationProperties.getNegativeCache().setTtl(Duration.ofMillis(100));
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any())).thenReturn(response(false, ActivationStatus.REMOVED));
+
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        verify(powerAuthClient, times(1)).validateToken(any(), any(), any());
+
+        Thread.sleep(300);
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        verify(powerAuthClient, times(2)).validateToken(any(), any(), any());
+    }
+
+    @Test
+    void testNegativeCache_invalidateToken() throws Exception {
+        configurationProperties.getNegativeCache().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any())).thenReturn(response(false, ActivationStatus.REMOVED));
+
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        tested.invalidateToken(TOKEN_ID);
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+
+        verify(powerAuthClient, times(2)).validateToken(any(), any(), any());
+    }
+
+    @Test
+    void testNegativeCache_invalidateActivation() throws Exception {
+        configurationProperties.getNegativeCache().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any())).thenReturn(response(false, ActivationStatus.REMOVED));
+        when(powerAuthClient.verifySignature(any(), any(), any())).thenReturn(signatureResponse(ActivationStatus.REMOVED));
+
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        tested.authenticate(signatureAuthentication());
+        tested.invalidateActivation("activation-1");
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        tested.authenticate(signatureAuthentication());
+
+        verify(powerAuthClient, times(2)).validateToken(any(), any(), any());
+        verify(powerAuthClient, times(2)).verifySignature(any(), any(), any());
+    }
+
+    @Test
+    void testNegativeCache_invalidateAll() throws Exception {
+        configurationProperties.getNegativeCache().setEnabled(true);
+        final PowerAuthAuthenticationProvider tested = createProvider();
+        when(powerAuthClient.validateToken(any(), any(), any())).thenReturn(response(false, ActivationStatus.REMOVED));
+        when(powerAuthClient.verifySignature(any(), any(), any())).thenReturn(signatureResponse(ActivationStatus.REMOVED));
+
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        tested.authenticate(signatureAuthentication());
+        tested.invalidateNegativeCache();
+        tested.authenticate(tokenAuthentication(TOKEN_DIGEST, NONCE, TIMESTAMP));
+        tested.authenticate(signatureAuthentication());
+
+        verify(powerAuthClient, times(2)).validateToken(any(), any(), any());
+        verify(powerAuthClient, times(2)).verifySignature(any(), any(), any());
+    }
+
+    private PowerAuthAuthenticationProvider createProvider() {
+        return new PowerAuthAuthenticationProvider(powerAuthClient, new ActivationStatusConverter(), new HttpCustomizationService(), configurationProperties);
+    }
+
+    private static PowerAuthTokenAuthenticationImpl tokenAuthentication(final String tokenDigest, final String nonce, final String timestamp) {
+        final PowerAuthTokenAuthenticationImpl authentication = new PowerAuthTokenAuthenticationImpl();
+        authentication.setTokenId(TOKEN_ID);
+        authentication.setTokenDigest(tokenDigest);
+        authentication.setNonce(nonce);
+        authentication.setTimestamp(timestamp);
+        authentication.setVersion(VERSION);
+        return authentication;
+    }
+
+    private static PowerAuthSignatureAuthenticationImpl signatureAuthentication() {
+        final PowerAuthSignatureAuthenticationImpl authentication = new PowerAuthSignatureAuthenticationImpl();
+        authentication.setActivationId("activation-1");
+        authentication.setApplicationKey("AIsOlIghnLztV2np3SANnQ==");
+        authentication.setSignature("Tuh5ZHHZdOjr+S5XIPXkgVpOp0TNk0cR");
+        authentication.setSignatureType("POSSESSION");
+        authentication.setHttpMethod("POST");
+        authentication.setRequestUri("/pa/signature/validate");
+        authentication.setNonce(NONCE.getBytes(StandardCharsets.UTF_8));
+        authentication.setData("{}".getBytes(StandardCharsets.UTF_8));
+        authentication.setVersion(VERSION);
+        return authentication;
+    }
+
+    private static VerifySignatureResponse signatureResponse(final ActivationStatus activationStatus) {
+        final VerifySignatureResponse response = new VerifySignatureResponse();
+        response.setSignatureValid(false);
+        response.setActivationId("activation-1");
+        response.setUserId("user-1");
+        response.setApplicationId("application-1");
+        response.setApplicationRoles(List.of("ROLE_USER"));
+        response.setActivationFlags(List.of("FLAG"));
+        response.setActivationStatus(activationStatus);
+        response.setSignatureType(SignatureType.POSSESSION);
+        return response;
+    }
+
+    private static ValidateTokenResponse response(final boolean tokenValid, final ActivationStatus activationStatus) {
+        final ValidateTokenResponse response = new ValidateTokenResponse();
+        response.setTokenValid(tokenValid);
+        response.setActivationId("activation-1");
+        response.setUserId("user-1");
+        response.setApplicationId("application-1");
+        response.setApplicationRoles(List.of("ROLE_USER"));
+        response.setActivationFlags(List.of("FLAG"));
+        response.setActivationStatus(activationStatus);
+        response.setSignatureType(SignatureType.POSSESSION);
+        return response;
+    }
+
+    private static Validation authenticateAsync(final PowerAuthAuthenticationProvider provider, final Authentication authentication) {
+        final FutureTask<Authentication> task = new FutureTask<>(() -> provider.authenticate(authentication));
+        final Thread thread = new Thread(task, "token-validation");
+        thread.start();
+        return new Validation(thread, task);
+    }
+
+    /**
+     * Validation running in a separate thread.
+     * @param thread Thread of the validation.
+     * @param task Validation task.
+     */
+    private record Validation(Thread thread, FutureTask<Authentication> task) {
+
+        Authentication get() throws Exception {
+            return task.get(5, TimeUnit.SECONDS);
+        }
+
+        void awaitWaiting() throws InterruptedException {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (thread.getState() != Thread.State.WAITING) {
+                if (System.nanoTime() > deadline) {
+                    fail("Validation is not waiting");
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+}
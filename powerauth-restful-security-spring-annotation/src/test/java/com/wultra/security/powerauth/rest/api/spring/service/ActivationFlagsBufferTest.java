@@ -0,0 +1,258 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import com.wultra.security.powerauth.client.PowerAuthClient;
+import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
+import com.wultra.security.powerauth.client.model.request.AddActivationFlagsRequest;
+import com.wultra.security.powerauth.rest.api.spring.configuration.PowerAuthActivationFlagsConfigurationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link ActivationFlagsBuffer}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ActivationFlagsBufferTest {
+
+    private static final String ACTIVATION_ID = "activation-1";
+
+    @Mock
+    private PowerAuthClient powerAuthClient;
+
+    private final PowerAuthActivationFlagsConfigurationProperties configurationProperties = new PowerAuthActivationFlagsConfigurationProperties();
+
+    private ActivationFlagsBuffer tested;
+
+    @BeforeEach
+    void setUp() {
+        final PowerAuthActivationFlagsConfigurationProperties.Buffer configuration = configurationProperties.getBuffer();
+        configuration.setEnabled(true);
+        // Scheduled flushes do not interfere with the tests unless the interval is changed
+        configuration.setFlushInterval(Duration.ofHours(1));
+        configuration.setMaxRetryBackoff(Duration.ofMillis(50));
+        tested = new ActivationFlagsBuffer(powerAuthClient, new HttpCustomizationService(), configurationProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tested.close();
+    }
+
+    @Test
+    void testAddActivationFlags_bufferDisabled() throws Exception {
+        configurationProperties.getBuffer().setEnabled(false);
+        tested.start();
+
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A"));
+
+        assertEquals(List.of("A"), writtenFlags(1).get(0));
+    }
+
+    @Test
+    void testAddActivationFlags_pendingFlagsMerged() throws Exception {
+        tested.start();
+
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A", "B"));
+        tested.addActivationFlags(ACTIVATION_ID, List.of("B", "C"));
+
+        verifyNoInteractions(powerAuthClient);
+        assertEquals(List.of("X", "A", "B", "C"), tested.mergePendingFlags(ACTIVATION_ID, List.of("X")));
+        assertEquals(List.of("X", "A", "B", "C"), tested.mergePendingFlags(ACTIVATION_ID, List.of("X", "A")));
+        final List<String> otherFlags = List.of("X");
+        assertSame(otherFlags, tested.mergePendingFlags("activation-2", otherFlags));
+
+        tested.flush();
+
+        // Flags added to the same activation are coalesced into a single call
+        assertEquals(List.of("A", "B", "C"), writtenFlags(1).get(0));
+        final List<String> flags = List.of("X");
+        assertSame(flags, tested.mergePendingFlags(ACTIVATION_ID, flags));
+    }
+
+    @Test
+    void testAddActivationFlags_bufferFull() throws Exception {
+        configurationProperties.getBuffer().setMaximumPendingActivations(1);
+        tested.start();
+
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A"));
+        tested.addActivationFlags("activation-2", List.of("B"));
+
+        // The second activation does not fit into the buffer and is written synchronously
+        final List<AddActivationFlagsRequest> requests = writtenRequests(1);
+        assertEquals("activation-2", requests.get(0).getActivationId());
+        assertEquals(List.of("X", "A"), tested.mergePendingFlags(ACTIVATION_ID, List.of("X")));
+    }
+
+    @Test
+    void testScheduledFlush() throws Exception {
+        configurationProperties.getBuffer().setFlushInterval(Duration.ofMillis(20));
+        tested.start();
+
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A"));
+
+        verify(powerAuthClient, timeout(5_000)).addActivationFlags(any(), any(), any());
+        final List<String> flags = List.of("X");
+        awaitCondition(() -> tested.mergePendingFlags(ACTIVATION_ID, flags) == flags);
+    }
+
+    @Test
+    void testFlush_retryWithBackoff() throws Exception {
+        when(powerAuthClient.addActivationFlags(any(), any(), any()))
+                .thenThrow(new PowerAuthClientException("Server unavailable"))
+                .thenReturn(null);
+        tested.start();
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A"));
+
+        tested.flush();
+        // The failed write is retried only after the backoff
+        tested.flush();
+        verify(powerAuthClient, times(1)).addActivationFlags(any(), any(), any());
+        assertEquals(List.of("A"), tested.mergePendingFlags(ACTIVATION_ID, List.of()));
+
+        Thread.sleep(100);
+        tested.flush();
+
+        verify(powerAuthClient, times(2)).addActivationFlags(any(), any(), any());
+        assertTrue(tested.mergePendingFlags(ACTIVATION_ID, List.of()).isEmpty());
+    }
+
+    @Test
+    void testFlush_flagsNeverDiscarded() throws Exception {
+        configurationProperties.getBuffer().setMaxAttempts(2);
+        configurationProperties.getBuffer().setMaxRetryBackoff(Duration.ZERO);
+        when(powerAuthClient.addActivationFlags(any(), any(), any())).thenThrow(new PowerAuthClientException("Server unavailable"));
+        tested.start();
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A"));
+
+        for (int i = 0; i < 5; i++) {
+            tested.flush();
+        }
+
+        verify(powerAuthClient, times(5)).addActivationFlags(any(), any(), any());
+        assertEquals(List.of("A"), tested.mergePendingFlags(ACTIVATION_ID, List.of()));
+    }
+
+    @Test
+    void testFlushActivationFlags() throws Exception {
+        tested.start();
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A"));
+
+        tested.flushActivationFlags(ACTIVATION_ID);
+
+        assertEquals(List.of("A"), writtenFlags(1).get(0));
+        assertTrue(tested.mergePendingFlags(ACTIVATION_ID, List.of()).isEmpty());
+
+        // Nothing is buffered anymore, no further call
+        tested.flushActivationFlags(ACTIVATION_ID);
+        verify(powerAuthClient, times(1)).addActivationFlags(any(), any(), any());
+    }
+
+    @Test
+    void testFlushActivationFlags_failure() throws Exception {
+        when(powerAuthClient.addActivationFlags(any(), any(), any())).thenThrow(new PowerAuthClientException("Server unavailable"));
+        tested.start();
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A"));
+
+        assertThrows(PowerAuthClientException.class, () -> tested.flushActivationFlags(ACTIVATION_ID));
+
+        assertEquals(List.of("A"), tested.mergePendingFlags(ACTIVATION_ID, List.of()));
+    }
+
+    @Test
+    void testClose_flushesPendingFlags() throws Exception {
+        configurationProperties.getBuffer().setMaxRetryBackoff(Duration.ofHours(1));
+        when(powerAuthClient.addActivationFlags(any(), any(), any()))
+                .thenThrow(new PowerAuthClientException("Server unavailable"))
+                .thenReturn(null);
+        tested.start();
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A"));
+        tested.flush();
+
+        // Flags waiting for a retry are written on shutdown as well
+        tested.close();
+
+        verify(powerAuthClient, times(2)).addActivationFlags(any(), any(), any());
+        assertTrue(tested.mergePendingFlags(ACTIVATION_ID, List.of()).isEmpty());
+    }
+
+    @Test
+    void testClose_waitsForScheduledFlush() throws Exception {
+        configurationProperties.getBuffer().setFlushInterval(Duration.ofMillis(20));
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(powerAuthClient.addActivationFlags(any(), any(), any())).thenAnswer(invocation -> {
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return null;
+        });
+        tested.start();
+        tested.addActivationFlags(ACTIVATION_ID, List.of("A"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        final Thread closeThread = new Thread(tested::close, "close");
+        closeThread.start();
+        // The final flush must not write the flags of the scheduled flush in progress again
+        Thread.sleep(200);
+        verify(powerAuthClient, times(1)).addActivationFlags(any(), any(), any());
+        assertTrue(closeThread.isAlive());
+
+        release.countDown();
+        closeThread.join(5_000);
+        assertFalse(closeThread.isAlive());
+        verify(powerAuthClient, times(1)).addActivationFlags(any(), any(), any());
+    }
+
+    private List<List<String>> writtenFlags(final int times) throws PowerAuthClientException {
+        return writtenRequests(times).stream().map(AddActivationFlagsRequest::getActivationFlags).toList();
+    }
+
+    private List<AddActivationFlagsRequest> writtenRequests(final int times) throws PowerAuthClientException {
+        final ArgumentCaptor<AddActivationFlagsRequest> captor = ArgumentCaptor.forClass(AddActivationFlagsRequest.class);
+        verify(powerAuthClient, times(times)).addActivationFlags(captor.capture(), any(), any());
+        return captor.getAllValues();
+    }
+
+    private static void awaitCondition(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within timeout");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.application;
+
+import com.wultra.core.annotations.PublicSpi;
+
+/**
+ * Interface for bean that distributes invalidations of cached activation details to other nodes of the cluster.
+ * <p>
+ * Activation details are cached per node. Renamed and removed activations are updated in the cache of the node
+ * handling the request, other nodes keep the cached detail until it expires. Implement this interface, e.g. using
+ * a message broker, and call {@code ActivationDetailCache#invalidate(String)} on the receiving nodes to invalidate
+ * the details across the cluster.
+ */
+@PublicSpi
+public interface ActivationDetailInvalidationPublisher {
+
+    /**
+     * Publish invalidation of the cached detail of given activation to other nodes.
+     *
+     * @param activationId Activation ID.
+     */
+    void publishInvalidation(String activationId);
+
+}
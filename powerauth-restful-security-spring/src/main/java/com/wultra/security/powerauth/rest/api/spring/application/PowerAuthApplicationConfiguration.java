@@ -21,6 +21,7 @@ package com.wultra.security.powerauth.rest.api.spring.application;
 
 import com.wultra.security.powerauth.rest.api.spring.model.ActivationContext;
 
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -44,4 +45,17 @@ public interface PowerAuthApplicationConfiguration {
      */
     Map<String, Object> statusServiceCustomObject(ActivationContext activationContext);
 
+    /**
+     * Time to live of the custom object returned by {@link #statusServiceCustomObject(ActivationContext)}.
+     * In case a positive duration is returned, the custom object is considered state-less: it is computed
+     * once per application and reused for all activations of the application until it expires. Use only for
+     * objects which do not depend on the activation, such as service outage info. Default implementation
+     * returns zero duration, which means that the custom object is computed for each activation status call.
+     *
+     * @return Time to live of the custom object.
+     */
+    default Duration statusServiceCustomObjectTtl() {
+        return Duration.ZERO;
+    }
+
 }
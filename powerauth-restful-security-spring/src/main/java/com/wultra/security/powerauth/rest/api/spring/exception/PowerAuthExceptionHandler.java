@@ -21,8 +21,10 @@ package com.wultra.security.powerauth.rest.api.spring.exception;
 
 import com.wultra.core.rest.model.base.response.ErrorResponse;
 import com.wultra.security.powerauth.rest.api.model.exception.RecoveryErrorResponse;
+import com.wultra.security.powerauth.rest.api.spring.configuration.PowerAuthAuthenticationConfigurationProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -30,6 +32,9 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Implementation of a PA2.0 Standard RESTful API exception handler.
  *
@@ -47,6 +52,26 @@ public class PowerAuthExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(PowerAuthExceptionHandler.class);
 
+    private static final long FAILURE_LOG_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private int failureLogLimit = new PowerAuthAuthenticationConfigurationProperties.FailureLogging().getMaximumPerSecond();
+
+    // Rate limiting of authentication failure logs, failures above the limit are counted within one second window,
+    // the window state is guarded by the lock
+    private final Object failureLogLock = new Object();
+    private long failureLogWindowStart = System.nanoTime();
+    private int failureLogCount;
+    private long failureLogSuppressed;
+
+    /**
+     * Set authentication configuration properties via setter injection.
+     * @param authenticationConfigurationProperties Authentication configuration properties.
+     */
+    @Autowired(required = false)
+    public void setAuthenticationConfigurationProperties(PowerAuthAuthenticationConfigurationProperties authenticationConfigurationProperties) {
+        this.failureLogLimit = authenticationConfigurationProperties.getFailureLogging().getMaximumPerSecond();
+    }
+
     /**
      * Handle PowerAuthAuthenticationException exceptions.
      * @param ex Exception instance.
@@ -55,7 +80,7 @@ public class PowerAuthExceptionHandler {
     @ExceptionHandler(value = PowerAuthAuthenticationException.class)
     @ResponseStatus(value = HttpStatus.UNAUTHORIZED)
     public @ResponseBody ErrorResponse handleUnauthorizedException(PowerAuthAuthenticationException ex) {
-        logger.warn(ex.getMessage(), ex);
+        logAuthenticationFailure(ex);
         return new ErrorResponse(ex.getDefaultCode(), ex.getDefaultError());
     }
 
@@ -144,4 +169,45 @@ public class PowerAuthExceptionHandler {
         return new ErrorResponse(ex.getDefaultCode(), ex.getDefaultError());
     }
 
+    /**
+     * Log authentication failure. Failures are logged without stack trace which is available on debug level,
+     * the number of logged failures is limited so that a flood of rejected requests does not flood the logs.
+     * The number of failures which were not logged is reported when the window ends.
+     * @param ex Exception instance.
+     */
+    private void logAuthenticationFailure(PowerAuthAuthenticationException ex) {
+        if (failureLogLimit >= 0) {
+            synchronized (failureLogLock) {
+                final long now = System.nanoTime();
+                if (now - failureLogWindowStart >= FAILURE_LOG_WINDOW_NANOS) {
+                    reportSuppressedFailures();
+                    failureLogWindowStart = now;
+                    failureLogCount = 0;
+                }
+                if (++failureLogCount > failureLogLimit) {
+                    if (failureLogSuppressed++ == 0) {
+                        // Report the suppressed failures at the end of the window even if no other failure arrives
+                        final long delay = failureLogWindowStart + FAILURE_LOG_WINDOW_NANOS - now;
+                        CompletableFuture.runAsync(this::reportSuppressedFailures, CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS));
+                    }
+                    return;
+                }
+            }
+        }
+        logger.warn("Authentication failed, error: {}", ex.getMessage());
+        logger.debug("Error details", ex);
+    }
+
+    /**
+     * Log the number of authentication failures which were not logged due to rate limiting and reset the counter.
+     */
+    private void reportSuppressedFailures() {
+        synchronized (failureLogLock) {
+            if (failureLogSuppressed > 0) {
+                logger.warn("Authentication failed, {} failures were not logged due to rate limiting", failureLogSuppressed);
+                failureLogSuppressed = 0;
+            }
+        }
+    }
+
 }
@@ -0,0 +1,524 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import com.wultra.security.powerauth.rest.api.model.entity.ActivationType;
+import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthActivationException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
+import com.wultra.security.powerauth.rest.api.spring.provider.CustomActivationProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outbox of activation commit and removal callbacks of the custom activation provider.
+ * <p>
+ * In case the outbox is enabled, the callbacks are written to a file in the outbox directory and delivered
+ * asynchronously by a bounded pool of workers, so that a slow downstream system does not delay the activation
+ * response. Failed deliveries are retried with exponential backoff, callbacks failing all attempts are moved
+ * to the dead letter directory. Callbacks which were not delivered before shutdown are replayed once
+ * the application is ready. The callbacks are delivered at least once.
+ * <p>
+ * In case the delivery queue is full, the callback is delivered on the calling thread. In case the callback
+ * cannot be stored without loss, i.e. custom attributes or the activation context contain a value which is not
+ * a JSON-native type, or the callback cannot be written, the callback is delivered synchronously as if the outbox
+ * was disabled.
+ * <p>
+ * Identity attributes may contain secrets, such as recovery codes, PUKs or credentials. In case the outbox is enabled,
+ * the commit callback receives only the identity attributes listed in the configured allow-list, regardless of whether
+ * the callback is stored, replayed or delivered synchronously. The allow-list must not be empty in case the outbox
+ * is enabled. The outbox directory and the event files are readable by the owner only, in case the file system supports
+ * POSIX permissions.
+ */
+@Component
+@Slf4j
+class ActivationCallbackOutbox implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final String EVENT_FILE_SUFFIX = ".json";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+    private static final String DEAD_LETTER_DIRECTORY = "dead";
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final boolean POSIX_SUPPORTED = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+
+    private final ActivationServiceConfigurationProperties.CallbackOutbox configuration;
+    private final JsonSerializationService jsonSerializationService;
+
+    // Event files queued or scheduled for delivery, prevents duplicate delivery during replay
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder deadLetters = new LongAdder();
+    private final LongAdder callerDeliveries = new LongAdder();
+
+    private CustomActivationProvider activationProvider;
+
+    private Path directory;
+    private Path deadLetterDirectory;
+    private ThreadPoolExecutor workers;
+    private ScheduledExecutorService retryScheduler;
+
+    @Autowired
+    ActivationCallbackOutbox(final ActivationServiceConfigurationProperties configurationProperties, final JsonSerializationService jsonSerializationService) {
+        this.configuration = configurationProperties.getCallbackOutbox();
+        this.jsonSerializationService = jsonSerializationService;
+    }
+
+    /**
+     * Set custom activation provider receiving the callbacks.
+     *
+     * @param activationProvider Custom activation provider.
+     */
+    @Autowired(required = false)
+    void setActivationProvider(final CustomActivationProvider activationProvider) {
+        this.activationProvider = activationProvider;
+    }
+
+    /**
+     * Register outbox statistics for monitoring.
+     *
+     * @param clientMetrics Metrics.
+     */
+    @Autowired(required = false)
+    void setClientMetrics(final PowerAuthClientMetrics clientMetrics) {
+        clientMetrics.monitorCounter("powerauth.activation.callbacks.enqueued", "Activation callbacks stored in the outbox", enqueued::sum);
+        clientMetrics.monitorCounter("powerauth.activation.callbacks.delivered", "Activation callbacks delivered from the outbox", delivered::sum);
+        clientMetrics.monitorCounter("powerauth.activation.callbacks.failures", "Failed deliveries of activation callbacks from the outbox", failures::sum);
+        clientMetrics.monitorCounter("powerauth.activation.callbacks.dead.letters", "Activation callbacks moved to the dead letter directory", deadLetters::sum);
+        clientMetrics.monitorCounter("powerauth.activation.callbacks.caller.deliveries", "Activation callbacks delivered on the calling thread due to a full queue", callerDeliveries::sum);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!configuration.isEnabled() || activationProvider == null) {
+            return;
+        }
+        if (configuration.getIdentityAttributes() == null || configuration.getIdentityAttributes().isEmpty()) {
+            throw new IllegalStateException("Activation callback outbox is enabled, but no identity attributes are allowed, "
+                    + "configure the identity attributes passed to the commit callback in powerauth.service.activation.callback-outbox.identity-attributes");
+        }
+        if (!StringUtils.hasText(configuration.getDirectory())) {
+            logger.warn("Activation callback outbox directory is not configured, callbacks are delivered synchronously");
+            return;
+        }
+        try {
+            directory = createPrivateDirectory(Path.of(configuration.getDirectory()));
+            deadLetterDirectory = createPrivateDirectory(directory.resolve(DEAD_LETTER_DIRECTORY));
+        } catch (IOException ex) {
+            logger.error("Activation callback outbox directory cannot be created, callbacks are delivered synchronously, error: {}", ex.getMessage());
+            logger.debug("Error details", ex);
+            return;
+        }
+
+        final CustomizableThreadFactory workerThreadFactory = new CustomizableThreadFactory("powerauth-activation-callback-");
+        workerThreadFactory.setDaemon(true);
+        final int workerCount = Math.max(1, configuration.getWorkers());
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, configuration.getQueueCapacity())), workerThreadFactory);
+
+        final CustomizableThreadFactory retryThreadFactory = new CustomizableThreadFactory("powerauth-activation-callback-retry-");
+        retryThreadFactory.setDaemon(true);
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(retryThreadFactory);
+        logger.info("Activation callback outbox started, directory: {}", directory);
+    }
+
+    @PreDestroy
+    void close() {
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    logger.info("Activation callback outbox stopped with pending callbacks, the callbacks are replayed after restart");
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException ex) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Replay callbacks which were not delivered before the last shutdown.
+     *
+     * @param event Application ready event.
+     */
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        if (workers == null) {
+            return;
+        }
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                final String fileName = file.getFileName().toString();
+                if (fileName.endsWith(TEMPORARY_FILE_SUFFIX)) {
+                    final Path eventFile = file.resolveSibling(fileName.substring(0, fileName.length() - TEMPORARY_FILE_SUFFIX.length()));
+                    if (!pending.contains(eventFile)) {
+                        // Incomplete write before the last shutdown, the callback was delivered synchronously
+                        Files.deleteIfExists(file);
+                    }
+                } else if (fileName.endsWith(EVENT_FILE_SUFFIX)) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException ex) {
+            logger.error("Activation callback outbox cannot be read, error: {}", ex.getMessage());
+            logger.debug("Error details", ex);
+            return;
+        }
+        if (files.isEmpty()) {
+            return;
+        }
+        logger.info("Replaying {} activation callbacks from the outbox", files.size());
+        files.stream().sorted().forEach(file -> {
+            if (!pending.add(file)) {
+                // Stored by a request served before the application was ready, the callback is already queued
+                return;
+            }
+            try {
+                final ActivationCallbackEvent callbackEvent = jsonSerializationService.readValue(Files.readAllBytes(file), ActivationCallbackEvent.class);
+                scheduleRetry(file, callbackEvent, Duration.ZERO);
+            } catch (NoSuchFileException ex) {
+                // Delivered and removed after the directory was listed
+                pending.remove(file);
+            } catch (IOException ex) {
+                logger.error("Activation callback cannot be read, file: {}, error: {}", file, ex.getMessage());
+                logger.debug("Error details", ex);
+                moveToDeadLetters(file);
+            }
+        });
+    }
+
+    /**
+     * Notify the custom activation provider about an activation commit. In case the outbox is enabled, only identity
+     * attributes from the configured allow-list are passed to the provider, both when the callback is stored and when
+     * it is delivered synchronously.
+     *
+     * @param identityAttributes Identity related attributes.
+     * @param customAttributes Custom attributes, not related to identity.
+     * @param activationId Activation ID of created activation.
+     * @param userId User ID of user who created the activation.
+     * @param appId Application ID of the application associated to the activation.
+     * @param activationType Activation type.
+     * @param context Context for passing parameters between activation provider calls.
+     * @throws PowerAuthActivationException In case the callback is delivered synchronously and fails.
+     */
+    void activationWasCommitted(final Map<String, String> identityAttributes, final Map<String, Object> customAttributes, final String activationId, final String userId, final String appId, final ActivationType activationType, final Map<String, Object> context) throws PowerAuthActivationException {
+        final Map<String, String> identity = configuration.isEnabled() ? allowedIdentityAttributes(identityAttributes) : identityAttributes;
+        if (workers != null && (!isJsonNative(customAttributes) || !isJsonNative(context))) {
+            logger.debug("Activation callback contains a value which is not a JSON-native type, delivering synchronously, activation ID: {}", activationId);
+        } else {
+            final ActivationCallbackEvent event = new ActivationCallbackEvent(CallbackType.ACTIVATION_COMMITTED, identity, customAttributes, activationId, userId, appId, activationType, context, 0);
+            if (enqueue(event)) {
+                return;
+            }
+        }
+        activationProvider.activationWasCommitted(identity, customAttributes, activationId, userId, appId, activationType, context);
+    }
+
+    /**
+     * Notify the custom activation provider about an activation removal.
+     *
+     * @param activationId Activation ID.
+     * @param userId User ID.
+     * @param appId Application ID.
+     * @throws PowerAuthActivationException In case the callback is delivered synchronously and fails.
+     */
+    void activationWasRemoved(final String activationId, final String userId, final String appId) throws PowerAuthActivationException {
+        final ActivationCallbackEvent event = new ActivationCallbackEvent(CallbackType.ACTIVATION_REMOVED, null, null, activationId, userId, appId, null, null, 0);
+        if (!enqueue(event)) {
+            deliver(event);
+        }
+    }
+
+    private Map<String, String> allowedIdentityAttributes(final Map<String, String> identityAttributes) {
+        final Set<String> allowList = configuration.getIdentityAttributes();
+        if (identityAttributes == null || allowList == null || allowList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> result = new LinkedHashMap<>();
+        identityAttributes.forEach((key, value) -> {
+            if (allowList.contains(key)) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Check whether the value survives a JSON round-trip without changing its type, i.e. it consists only
+     * of strings, numbers, booleans, lists and maps with string keys. Long values within the integer range
+     * are read back as integers, so they are not JSON-native.
+     *
+     * @param value Value to check.
+     * @return True in case the value is a JSON-native type.
+     */
+    static boolean isJsonNative(final Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean
+                || value instanceof Integer || value instanceof Double) {
+            return true;
+        }
+        if (value instanceof final Long longValue) {
+            return longValue < Integer.MIN_VALUE || longValue > Integer.MAX_VALUE;
+        }
+        if (value instanceof final Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String) || !isJsonNative(entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof final List<?> list) {
+            for (Object item : list) {
+                if (!isJsonNative(item)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Store the callback in the outbox and submit it for delivery.
+     *
+     * @param event Callback event.
+     * @return True in case the callback was stored, false in case it has to be delivered synchronously.
+     */
+    private boolean enqueue(final ActivationCallbackEvent event) {
+        if (workers == null) {
+            return false;
+        }
+        final Path file = directory.resolve("%020d-%s%s".formatted(System.currentTimeMillis(), UUID.randomUUID(), EVENT_FILE_SUFFIX));
+        // Mark the file as pending before it is written, so that the replay never picks it up
+        pending.add(file);
+        try {
+            write(file, event);
+        } catch (IOException ex) {
+            pending.remove(file);
+            logger.warn("Activation callback cannot be stored in the outbox, delivering synchronously, activation ID: {}, error: {}", event.activationId(), ex.getMessage());
+            logger.debug("Error details", ex);
+            return false;
+        }
+        enqueued.increment();
+        try {
+            workers.execute(() -> process(file, event));
+        } catch (RejectedExecutionException ex) {
+            // Queue is full, deliver on the calling thread to slow down the producers
+            callerDeliveries.increment();
+            process(file, event);
+        }
+        return true;
+    }
+
+    /**
+     * Deliver the stored callback, schedule a retry or move the callback to dead letters in case the delivery fails.
+     *
+     * @param file Event file.
+     * @param event Callback event.
+     */
+    private void process(final Path file, final ActivationCallbackEvent event) {
+        try {
+            deliver(event);
+            delivered.increment();
+            Files.deleteIfExists(file);
+            pending.remove(file);
+        } catch (IOException ex) {
+            logger.warn("Delivered activation callback cannot be removed from the outbox, file: {}, error: {}", file, ex.getMessage());
+            pending.remove(file);
+        } catch (Exception ex) {
+            failures.increment();
+            final int attempt = event.attempt() + 1;
+            if (attempt >= configuration.getMaxAttempts()) {
+                logger.error("Activation callback failed {} times, moving to dead letters, type: {}, activation ID: {}, error: {}", attempt, event.type(), event.activationId(), ex.getMessage());
+                logger.debug("Error details", ex);
+                moveToDeadLetters(file);
+                return;
+            }
+            final ActivationCallbackEvent retryEvent = event.withAttempt(attempt);
+            try {
+                write(file, retryEvent);
+            } catch (IOException writeEx) {
+                logger.warn("Activation callback attempt cannot be stored, file: {}, error: {}", file, writeEx.getMessage());
+            }
+            final Duration delay = retryDelay(attempt);
+            logger.warn("Activation callback failed, type: {}, activation ID: {}, attempt: {}, retry in: {}, error: {}", event.type(), event.activationId(), attempt, delay, ex.getMessage());
+            logger.debug("Error details", ex);
+            scheduleRetry(file, retryEvent, delay);
+        }
+    }
+
+    private void scheduleRetry(final Path file, final ActivationCallbackEvent event, final Duration delay) {
+        try {
+            retryScheduler.schedule(() -> {
+                try {
+                    workers.execute(() -> process(file, event));
+                } catch (RejectedExecutionException ex) {
+                    // Workers are busy, try again later without blocking the scheduler
+                    scheduleRetry(file, event, configuration.getRetryBackoff());
+                }
+            }, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            logger.debug("Activation callback retry was not scheduled due to shutdown, file: {}", file);
+        }
+    }
+
+    /**
+     * Get the delay before the given retry attempt.
+     *
+     * @param attempt Number of failed delivery attempts.
+     * @return Retry delay.
+     */
+    Duration retryDelay(final int attempt) {
+        final Duration backoff = configuration.getRetryBackoff().multipliedBy(1L << Math.min(attempt - 1, 20));
+        final Duration maxBackoff = configuration.getMaxRetryBackoff();
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void deliver(final ActivationCallbackEvent event) throws PowerAuthActivationException {
+        switch (event.type()) {
+            case ACTIVATION_COMMITTED -> activationProvider.activationWasCommitted(event.identityAttributes(), event.customAttributes(),
+                    event.activationId(), event.userId(), event.appId(), event.activationType(), event.context());
+            case ACTIVATION_REMOVED -> activationProvider.activationWasRemoved(event.activationId(), event.userId(), event.appId());
+        }
+    }
+
+    /**
+     * Write the event file atomically, the file is either complete or not present at all.
+     *
+     * @param file Event file.
+     * @param event Callback event.
+     * @throws IOException In case serialization or writing fails.
+     */
+    private void write(final Path file, final ActivationCallbackEvent event) throws IOException {
+        final ByteBuffer data = ByteBuffer.wrap(jsonSerializationService.writeValueAsBytes(event));
+        final Path temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_FILE_SUFFIX);
+        final Set<OpenOption> options = Set.of(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        final FileAttribute<?>[] attributes = POSIX_SUPPORTED
+                ? new FileAttribute<?>[] {PosixFilePermissions.asFileAttribute(FILE_PERMISSIONS)}
+                : new FileAttribute<?>[0];
+        try (FileChannel channel = FileChannel.open(temporaryFile, options, attributes)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Create the directory readable by the owner only, permissions of an existing directory are restricted as well.
+     *
+     * @param path Directory path.
+     * @return Directory path.
+     * @throws IOException In case the directory cannot be created.
+     */
+    private static Path createPrivateDirectory(final Path path) throws IOException {
+        if (!POSIX_SUPPORTED) {
+            return Files.createDirectories(path);
+        }
+        final Path result = Files.createDirectories(path, PosixFilePermissions.asFileAttribute(DIRECTORY_PERMISSIONS));
+        Files.setPosixFilePermissions(result, DIRECTORY_PERMISSIONS);
+        return result;
+    }
+
+    private void moveToDeadLetters(final Path file) {
+        deadLetters.increment();
+        pending.remove(file);
+        try {
+            Files.move(file, deadLetterDirectory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            logger.error("Activation callback cannot be moved to dead letters, file: {}, error: {}", file, ex.getMessage());
+            logger.debug("Error details", ex);
+        }
+    }
+
+    /**
+     * Type of the activation callback.
+     */
+    enum CallbackType {
+        ACTIVATION_COMMITTED,
+        ACTIVATION_REMOVED
+    }
+
+    /**
+     * Activation callback stored in the outbox.
+     *
+     * @param type Callback type.
+     * @param identityAttributes Identity related attributes.
+     * @param customAttributes Custom attributes.
+     * @param activationId Activation ID.
+     * @param userId User ID.
+     * @param appId Application ID.
+     * @param activationType Activation type.
+     * @param context Context of the activation provider calls.
+     * @param attempt Number of failed delivery attempts.
+     */
+    record ActivationCallbackEvent(CallbackType type, Map<String, String> identityAttributes, Map<String, Object> customAttributes,
+                                   String activationId, String userId, String appId, ActivationType activationType,
+                                   Map<String, Object> context, int attempt) {
+
+        ActivationCallbackEvent withAttempt(final int attempt) {
+            return new ActivationCallbackEvent(type, identityAttributes, customAttributes, activationId, userId, appId, activationType, context, attempt);
+        }
+    }
+
+}
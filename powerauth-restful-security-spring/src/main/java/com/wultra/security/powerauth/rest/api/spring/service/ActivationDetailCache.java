@@ -0,0 +1,179 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wultra.security.powerauth.rest.api.model.response.ActivationDetailResponse;
+import com.wultra.security.powerauth.rest.api.spring.application.ActivationDetailInvalidationPublisher;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of activation details returned by the activation detail endpoint.
+ * <p>
+ * In case the cache is enabled, activation ID and name are cached per activation for the configured time to live.
+ * The detail is updated when the activation is renamed and invalidated when the activation is removed on this node.
+ * Other nodes are notified using {@link ActivationDetailInvalidationPublisher}, in case such bean is available,
+ * the receiving nodes should call {@link #invalidate(String)}.
+ */
+@Component
+@Slf4j
+public class ActivationDetailCache {
+
+    private final Cache<String, CachedDetail> cache;
+
+    private ActivationDetailInvalidationPublisher invalidationPublisher;
+
+    /**
+     * Cache constructor.
+     *
+     * @param configurationProperties Activation service configuration properties.
+     */
+    @Autowired
+    public ActivationDetailCache(final ActivationServiceConfigurationProperties configurationProperties) {
+        final ActivationServiceConfigurationProperties.DetailCache configuration = configurationProperties.getDetailCache();
+        if (configuration.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                    .expireAfterWrite(configuration.getTtl())
+                    .maximumSize(configuration.getMaximumSize())
+                    .recordStats()
+                    .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Set publisher of invalidations to other nodes via setter injection.
+     *
+     * @param invalidationPublisher Invalidation publisher.
+     */
+    @Autowired(required = false)
+    public void setInvalidationPublisher(final ActivationDetailInvalidationPublisher invalidationPublisher) {
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    /**
+     * Register the cache for monitoring, in case it is enabled.
+     *
+     * @param clientMetrics Metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(final PowerAuthClientMetrics clientMetrics) {
+        if (cache != null) {
+            clientMetrics.monitorCache("powerauth.activation.detail", cache);
+        }
+    }
+
+    /**
+     * Invalidate cached detail of given activation on this node, e.g. after receiving an invalidation from another node.
+     *
+     * @param activationId Activation ID.
+     */
+    public void invalidate(final String activationId) {
+        if (cache != null && activationId != null) {
+            cache.invalidate(activationId);
+        }
+    }
+
+    /**
+     * Get cached activation detail.
+     *
+     * @param activationId Activation ID.
+     * @return Copy of the cached activation detail, null in case the detail is not cached.
+     */
+    ActivationDetailResponse get(final String activationId) {
+        if (cache == null || activationId == null) {
+            return null;
+        }
+        final CachedDetail detail = cache.getIfPresent(activationId);
+        return detail != null ? detail.toResponse() : null;
+    }
+
+    /**
+     * Store activation detail loaded from PowerAuth server. A detail stored concurrently, e.g. by activation rename,
+     * is not overwritten.
+     *
+     * @param response Activation detail.
+     */
+    void loaded(final ActivationDetailResponse response) {
+        if (cache != null && response.getActivationId() != null) {
+            cache.asMap().putIfAbsent(response.getActivationId(), CachedDetail.of(response));
+        }
+    }
+
+    /**
+     * Update activation detail after the activation was renamed and notify other nodes.
+     *
+     * @param response Activation detail of the renamed activation.
+     */
+    void renamed(final ActivationDetailResponse response) {
+        if (cache != null && response.getActivationId() != null) {
+            cache.put(response.getActivationId(), CachedDetail.of(response));
+            publishInvalidation(response.getActivationId());
+        }
+    }
+
+    /**
+     * Invalidate activation detail after the activation was removed and notify other nodes.
+     *
+     * @param activationId Activation ID.
+     */
+    void removed(final String activationId) {
+        if (cache != null && activationId != null) {
+            cache.invalidate(activationId);
+            publishInvalidation(activationId);
+        }
+    }
+
+    private void publishInvalidation(final String activationId) {
+        if (invalidationPublisher == null) {
+            return;
+        }
+        try {
+            invalidationPublisher.publishInvalidation(activationId);
+        } catch (RuntimeException ex) {
+            logger.warn("Invalidation of activation detail could not be published, activation ID: {}, error: {}", activationId, ex.getMessage());
+            logger.debug("Error details", ex);
+        }
+    }
+
+    /**
+     * Immutable cached activation detail, the response object is mutable and is copied on each read.
+     */
+    private record CachedDetail(String activationId, String activationName) {
+
+        static CachedDetail of(final ActivationDetailResponse response) {
+            return new CachedDetail(response.getActivationId(), response.getActivationName());
+        }
+
+        ActivationDetailResponse toResponse() {
+            final ActivationDetailResponse response = new ActivationDetailResponse();
+            response.setActivationId(activationId);
+            response.setActivationName(activationName);
+            return response;
+        }
+
+    }
+
+}
@@ -19,6 +19,8 @@
  */
 package com.wultra.security.powerauth.rest.api.spring.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.wultra.security.powerauth.client.PowerAuthClient;
 import com.wultra.security.powerauth.client.model.enumeration.ActivationStatus;
 import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
@@ -38,6 +40,8 @@ import com.wultra.security.powerauth.rest.api.spring.converter.ActivationContext
 import com.wultra.security.powerauth.rest.api.spring.encryption.EncryptionContext;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthActivationException;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthRecoveryException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetricTags;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
 import com.wultra.security.powerauth.rest.api.spring.model.ActivationContext;
 import com.wultra.security.powerauth.rest.api.spring.model.UserInfoContext;
 import com.wultra.security.powerauth.rest.api.spring.provider.CustomActivationProvider;
@@ -45,13 +49,18 @@ import com.wultra.security.powerauth.rest.api.spring.provider.UserInfoProvider;
 import com.wultra.security.powerauth.rest.api.spring.service.oidc.OidcActivationContext;
 import com.wultra.security.powerauth.rest.api.spring.service.oidc.OidcHandler;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 
 /**
  * Service implementing activation functionality.
@@ -67,17 +76,33 @@ import java.util.*;
 @Slf4j
 public class ActivationService {
 
+    /**
+     * Name of an optional executor bean used for fetching user info concurrently with activation processing.
+     */
+    public static final String ACTIVATION_EXECUTOR_BEAN_NAME = "powerAuthActivationExecutor";
+
     private static final String METHOD_OIDC = "oidc";
 
+    private static final long STATUS_CUSTOM_OBJECTS_MAXIMUM_SIZE = 1000;
+
     private final PowerAuthClient powerAuthClient;
     private final HttpCustomizationService httpCustomizationService;
     private final ActivationContextConverter activationContextConverter;
     private final OidcHandler oidcHandler;
 
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
     private PowerAuthApplicationConfiguration applicationConfiguration;
+    // State-less custom objects of the activation status keyed by application ID, null when the caching is disabled
+    private Cache<String, Optional<Map<String, Object>>> statusCustomObjects;
     private CustomActivationProvider activationProvider;
     private UserInfoProvider userInfoProvider;
 
+    private ActivationServiceConfigurationProperties configurationProperties = new ActivationServiceConfigurationProperties();
+    private Executor activationExecutor;
+    private ActivationCallbackOutbox callbackOutbox;
+    private ActivationFlagsBuffer activationFlagsBuffer;
+    private ActivationDetailCache activationDetailCache;
 
     /**
      * Service constructor.
@@ -98,6 +123,15 @@ public class ActivationService {
         this.oidcHandler = oidcHandler;
     }
 
+    /**
+     * Set metrics of PowerAuth server calls.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+    }
+
     /**
      * Set application configuration class via setter injection.
      * @param applicationConfiguration Application configuration.
@@ -105,6 +139,15 @@ public class ActivationService {
     @Autowired(required = false)
     public void setApplicationConfiguration(PowerAuthApplicationConfiguration applicationConfiguration) {
         this.applicationConfiguration = applicationConfiguration;
+        final Duration customObjectTtl = applicationConfiguration.statusServiceCustomObjectTtl();
+        if (customObjectTtl != null && customObjectTtl.isPositive()) {
+            this.statusCustomObjects = Caffeine.newBuilder()
+                    .maximumSize(STATUS_CUSTOM_OBJECTS_MAXIMUM_SIZE)
+                    .expireAfterWrite(customObjectTtl)
+                    .build();
+        } else {
+            this.statusCustomObjects = null;
+        }
     }
 
     /**
@@ -125,6 +168,52 @@ public class ActivationService {
         this.userInfoProvider = userInfoProvider;
     }
 
+    /**
+     * Set activation service configuration properties via setter injection.
+     * @param configurationProperties Activation service configuration properties.
+     */
+    @Autowired(required = false)
+    public void setConfigurationProperties(ActivationServiceConfigurationProperties configurationProperties) {
+        this.configurationProperties = configurationProperties;
+    }
+
+    /**
+     * Set executor used for fetching user info concurrently, in case a bean named {@value #ACTIVATION_EXECUTOR_BEAN_NAME}
+     * is available. The shared {@link PowerAuthDefaultExecutor} is used otherwise.
+     * @param activationExecutor Executor for concurrent activation processing.
+     */
+    @Autowired(required = false)
+    public void setActivationExecutor(@Qualifier(ACTIVATION_EXECUTOR_BEAN_NAME) Executor activationExecutor) {
+        this.activationExecutor = activationExecutor;
+    }
+
+    /**
+     * Set activation flags buffer via setter injection.
+     * @param activationFlagsBuffer Activation flags buffer.
+     */
+    @Autowired(required = false)
+    public void setActivationFlagsBuffer(ActivationFlagsBuffer activationFlagsBuffer) {
+        this.activationFlagsBuffer = activationFlagsBuffer;
+    }
+
+    /**
+     * Set activation detail cache via setter injection.
+     * @param activationDetailCache Activation detail cache.
+     */
+    @Autowired(required = false)
+    public void setActivationDetailCache(ActivationDetailCache activationDetailCache) {
+        this.activationDetailCache = activationDetailCache;
+    }
+
+    /**
+     * Set outbox for asynchronous delivery of activation callbacks via setter injection.
+     * @param callbackOutbox Activation callback outbox.
+     */
+    @Autowired(required = false)
+    void setCallbackOutbox(ActivationCallbackOutbox callbackOutbox) {
+        this.callbackOutbox = callbackOutbox;
+    }
+
     /**
      * Create activation.
      *
@@ -192,11 +281,12 @@ public class ActivationService {
         prepareRequest.setProtocolVersion(eciesContext.getVersion());
         prepareRequest.setTimestamp(activationData.getTimestamp());
 
-        final PrepareActivationResponse response = powerAuthClient.prepareActivation(
-                prepareRequest,
-                httpCustomizationService.getQueryParams(),
-                httpCustomizationService.getHttpHeaders()
-        );
+        final PrepareActivationResponse response = clientMetrics.record("prepareActivation", PowerAuthClientMetricTags.version(prepareRequest.getProtocolVersion()),
+                () -> powerAuthClient.prepareActivation(
+                        prepareRequest,
+                        httpCustomizationService.getQueryParams(),
+                        httpCustomizationService.getHttpHeaders()
+                ));
 
         final String userId = response.getUserId();
         final String activationId = response.getActivationId();
@@ -208,28 +298,27 @@ public class ActivationService {
                 .activationId(activationId)
                 .applicationId(applicationId)
                 .build();
-        final Map<String, Object> userInfo = processUserInfo(userInfoContext);
+        final Future<Map<String, Object>> userInfoFuture = startUserInfo(userInfoContext);
 
         Map<String, Object> processedCustomAttributes = customAttributes;
-        // In case a custom activation provider is enabled, process custom attributes and save any flags
-        if (activationProvider != null) {
-            processedCustomAttributes = activationProvider.processCustomActivationAttributes(customAttributes, activationId, userId, applicationId, ActivationType.CODE, context);
-            final List<String> activationFlags = activationProvider.getActivationFlags(identity, processedCustomAttributes, activationId, userId, applicationId, ActivationType.CODE, context);
-            if (activationFlags != null && !activationFlags.isEmpty()) {
-                final AddActivationFlagsRequest flagsRequest = new AddActivationFlagsRequest();
-                flagsRequest.setActivationId(activationId);
-                flagsRequest.getActivationFlags().addAll(activationFlags);
-                powerAuthClient.addActivationFlags(
-                        flagsRequest,
-                        httpCustomizationService.getQueryParams(),
-                        httpCustomizationService.getHttpHeaders()
-                );
+        final Map<String, Object> userInfo;
+        try {
+            // In case a custom activation provider is enabled, process custom attributes and save any flags
+            if (activationProvider != null) {
+                processedCustomAttributes = activationProvider.processCustomActivationAttributes(customAttributes, activationId, userId, applicationId, ActivationType.CODE, context);
+                final List<String> activationFlags = activationProvider.getActivationFlags(identity, processedCustomAttributes, activationId, userId, applicationId, ActivationType.CODE, context);
+                addActivationFlags(activationId, activationFlags);
             }
+
+            userInfo = awaitUserInfo(userInfoFuture);
+        } finally {
+            cancelUserInfo(userInfoFuture);
         }
 
         boolean notifyActivationCommit = false;
         if (response.getActivationStatus() == ActivationStatus.ACTIVE) {
             // Activation was committed instantly due to presence of Activation OTP.
+            flushActivationFlags(activationId);
             notifyActivationCommit = true;
         } else {
             // Otherwise check if activation should be committed instantly and if yes, perform commit.
@@ -240,7 +329,7 @@ public class ActivationService {
         }
         // Notify activation provider about an activation commit.
         if (activationProvider != null && notifyActivationCommit) {
-            activationProvider.activationWasCommitted(identity, customAttributes, activationId, userId, applicationId, ActivationType.CODE, context);
+            notifyActivationCommitted(identity, customAttributes, activationId, userId, applicationId, ActivationType.CODE, context);
         }
 
         // Prepare and return encrypted response
@@ -296,11 +385,12 @@ public class ActivationService {
         recoveryRequest.setProtocolVersion(eciesContext.getVersion());
         recoveryRequest.setTimestamp(activationData.getTimestamp());
 
-        final RecoveryCodeActivationResponse response = powerAuthClient.createActivationUsingRecoveryCode(
-                recoveryRequest,
-                httpCustomizationService.getQueryParams(),
-                httpCustomizationService.getHttpHeaders()
-        );
+        final RecoveryCodeActivationResponse response = clientMetrics.record("createActivationUsingRecoveryCode", PowerAuthClientMetricTags.version(recoveryRequest.getProtocolVersion()),
+                () -> powerAuthClient.createActivationUsingRecoveryCode(
+                        recoveryRequest,
+                        httpCustomizationService.getQueryParams(),
+                        httpCustomizationService.getHttpHeaders()
+                ));
 
         final String userId = response.getUserId();
         final String activationId = response.getActivationId();
@@ -312,30 +402,28 @@ public class ActivationService {
                 .activationId(activationId)
                 .applicationId(applicationId)
                 .build();
-        final Map<String, Object> userInfo = processUserInfo(userInfoContext);
+        final Future<Map<String, Object>> userInfoFuture = startUserInfo(userInfoContext);
 
         Map<String, Object> processedCustomAttributes = customAttributes;
-        // In case a custom activation provider is enabled, process custom attributes and save any flags
-        if (activationProvider != null) {
-            processedCustomAttributes = activationProvider.processCustomActivationAttributes(customAttributes, activationId, userId, applicationId, ActivationType.RECOVERY, context);
-            final List<String> activationFlags = activationProvider.getActivationFlags(identity, processedCustomAttributes, activationId, userId, applicationId, ActivationType.RECOVERY, context);
-            if (activationFlags != null && !activationFlags.isEmpty()) {
-                final AddActivationFlagsRequest flagsRequest = new AddActivationFlagsRequest();
-                flagsRequest.setActivationId(activationId);
-                flagsRequest.getActivationFlags().addAll(activationFlags);
-                powerAuthClient.addActivationFlags(
-                        flagsRequest,
-                        httpCustomizationService.getQueryParams(),
-                        httpCustomizationService.getHttpHeaders()
-                );
+        final Map<String, Object> userInfo;
+        try {
+            // In case a custom activation provider is enabled, process custom attributes and save any flags
+            if (activationProvider != null) {
+                processedCustomAttributes = activationProvider.processCustomActivationAttributes(customAttributes, activationId, userId, applicationId, ActivationType.RECOVERY, context);
+                final List<String> activationFlags = activationProvider.getActivationFlags(identity, processedCustomAttributes, activationId, userId, applicationId, ActivationType.RECOVERY, context);
+                addActivationFlags(activationId, activationFlags);
             }
+
+            userInfo = awaitUserInfo(userInfoFuture);
+        } finally {
+            cancelUserInfo(userInfoFuture);
         }
 
         // Automatically commit activation by default, the optional activation provider can override automatic commit
         if (activationProvider == null || activationProvider.shouldAutoCommitActivation(identity, customAttributes, activationId, userId, applicationId, ActivationType.RECOVERY, context)) {
             final CommitActivationResponse commitResponse = commitActivation(activationId);
             if (activationProvider != null && commitResponse.isActivated()) {
-                activationProvider.activationWasCommitted(identity, customAttributes, activationId, userId, applicationId, ActivationType.RECOVERY, context);
+                notifyActivationCommitted(identity, customAttributes, activationId, userId, applicationId, ActivationType.RECOVERY, context);
             }
         }
 
@@ -396,11 +484,12 @@ public class ActivationService {
         createRequest.setNonce(activationData.getNonce());
         createRequest.setProtocolVersion(eciesContext.getVersion());
         createRequest.setTimestamp(activationData.getTimestamp());
-        final CreateActivationResponse response = powerAuthClient.createActivation(
-                createRequest,
-                httpCustomizationService.getQueryParams(),
-                httpCustomizationService.getHttpHeaders()
-        );
+        final CreateActivationResponse response = clientMetrics.record("createActivation", PowerAuthClientMetricTags.version(createRequest.getProtocolVersion()),
+                () -> powerAuthClient.createActivation(
+                        createRequest,
+                        httpCustomizationService.getQueryParams(),
+                        httpCustomizationService.getHttpHeaders()
+                ));
 
         final String activationId = response.getActivationId();
         final String applicationId = response.getApplicationId();
@@ -411,29 +500,28 @@ public class ActivationService {
                 .activationId(activationId)
                 .applicationId(applicationId)
                 .build();
-        final Map<String, Object> userInfo = processUserInfo(userInfoContext);
+        final Future<Map<String, Object>> userInfoFuture = startUserInfo(userInfoContext);
 
-        // Process custom attributes using a custom logic
-        final Map<String, Object> processedCustomAttributes = activationProvider.processCustomActivationAttributes(customAttributes, activationId, userId, applicationId, ActivationType.CUSTOM, context);
+        final Map<String, Object> processedCustomAttributes;
+        final Map<String, Object> userInfo;
+        try {
+            // Process custom attributes using a custom logic
+            processedCustomAttributes = activationProvider.processCustomActivationAttributes(customAttributes, activationId, userId, applicationId, ActivationType.CUSTOM, context);
+
+            // Save activation flags in case the provider specified any flags
+            final List<String> activationFlags = activationProvider.getActivationFlags(identity, processedCustomAttributes, activationId, userId, applicationId, ActivationType.CUSTOM, context);
+            addActivationFlags(activationId, activationFlags);
 
-        // Save activation flags in case the provider specified any flags
-        final List<String> activationFlags = activationProvider.getActivationFlags(identity, processedCustomAttributes, activationId, userId, applicationId, ActivationType.CUSTOM, context);
-        if (activationFlags != null && !activationFlags.isEmpty()) {
-            final AddActivationFlagsRequest flagsRequest = new AddActivationFlagsRequest();
-            flagsRequest.setActivationId(activationId);
-            flagsRequest.getActivationFlags().addAll(activationFlags);
-            powerAuthClient.addActivationFlags(
-                    flagsRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            userInfo = awaitUserInfo(userInfoFuture);
+        } finally {
+            cancelUserInfo(userInfoFuture);
         }
 
         // Check if activation should be committed instantly and if yes, perform commit
         if (activationProvider.shouldAutoCommitActivation(identity, customAttributes, activationId, userId, applicationId, ActivationType.CUSTOM, context)) {
             final CommitActivationResponse commitResponse = commitActivation(activationId);
             if (commitResponse.isActivated()) {
-                activationProvider.activationWasCommitted(identity, customAttributes, activationId, userId, applicationId, ActivationType.CUSTOM, context);
+                notifyActivationCommitted(identity, customAttributes, activationId, userId, applicationId, ActivationType.CUSTOM, context);
             }
         }
 
@@ -487,24 +575,26 @@ public class ActivationService {
         createRequest.setProtocolVersion(eciesContext.getVersion());
         createRequest.setTimestamp(activationData.getTimestamp());
 
-        final CreateActivationResponse response = powerAuthClient.createActivation(
-                createRequest,
-                httpCustomizationService.getQueryParams(),
-                httpCustomizationService.getHttpHeaders()
-        );
+        final CreateActivationResponse response = clientMetrics.record("createActivation", PowerAuthClientMetricTags.version(createRequest.getProtocolVersion()),
+                () -> powerAuthClient.createActivation(
+                        createRequest,
+                        httpCustomizationService.getQueryParams(),
+                        httpCustomizationService.getHttpHeaders()
+                ));
 
         final String activationId = response.getActivationId();
         final String applicationId = response.getApplicationId();
 
-        commitActivation(activationId);
-
         final UserInfoContext userInfoContext = UserInfoContext.builder()
                 .stage(UserInfoStage.ACTIVATION_PROCESS_CUSTOM)
                 .userId(userId)
                 .activationId(activationId)
                 .applicationId(applicationId)
                 .build();
-        final Map<String, Object> userInfo = processUserInfo(userInfoContext);
+        // Nothing to overlap with, the user info must be fetched before the commit
+        final Map<String, Object> userInfo = awaitUserInfo(startUserInfo(userInfoContext));
+
+        commitActivation(activationId);
 
         return prepareEncryptedResponse(response.getEncryptedData(), response.getMac(),
                 response.getNonce(), response.getTimestamp(), customAttributes, userInfo);
@@ -517,14 +607,58 @@ public class ActivationService {
     }
 
     private CommitActivationResponse commitActivation(final String activationId) throws PowerAuthClientException {
+        // The activation must not be usable before its flags are written
+        flushActivationFlags(activationId);
         final CommitActivationRequest commitRequest = new CommitActivationRequest();
         commitRequest.setActivationId(activationId);
         commitRequest.setExternalUserId(null);
-        return powerAuthClient.commitActivation(
-                commitRequest,
-                httpCustomizationService.getQueryParams(),
-                httpCustomizationService.getHttpHeaders()
-        );
+        return clientMetrics.record("commitActivation",
+                () -> powerAuthClient.commitActivation(
+                        commitRequest,
+                        httpCustomizationService.getQueryParams(),
+                        httpCustomizationService.getHttpHeaders()
+                ));
+    }
+
+    private void addActivationFlags(final String activationId, final List<String> activationFlags) throws PowerAuthClientException {
+        if (activationFlags == null || activationFlags.isEmpty()) {
+            return;
+        }
+        if (activationFlagsBuffer != null) {
+            activationFlagsBuffer.addActivationFlags(activationId, activationFlags);
+            return;
+        }
+        final AddActivationFlagsRequest flagsRequest = new AddActivationFlagsRequest();
+        flagsRequest.setActivationId(activationId);
+        flagsRequest.getActivationFlags().addAll(activationFlags);
+        clientMetrics.record("addActivationFlags",
+                () -> powerAuthClient.addActivationFlags(
+                        flagsRequest,
+                        httpCustomizationService.getQueryParams(),
+                        httpCustomizationService.getHttpHeaders()
+                ));
+    }
+
+    private void flushActivationFlags(final String activationId) throws PowerAuthClientException {
+        if (activationFlagsBuffer != null) {
+            activationFlagsBuffer.flushActivationFlags(activationId);
+        }
+    }
+
+    private void notifyActivationCommitted(final Map<String, String> identity, final Map<String, Object> customAttributes, final String activationId, final String userId, final String applicationId, final ActivationType activationType, final Map<String, Object> context) throws PowerAuthActivationException {
+        if (callbackOutbox != null) {
+            callbackOutbox.activationWasCommitted(identity, customAttributes, activationId, userId, applicationId, activationType, context);
+        } else {
+            activationProvider.activationWasCommitted(identity, customAttributes, activationId, userId, applicationId, activationType, context);
+        }
+    }
+
+    private void notifyActivationRemoved(final String activationId, final String userId, final String applicationId) throws PowerAuthActivationException {
+        if (callbackOutbox != null) {
+            callbackOutbox.activationWasRemoved(activationId, userId, applicationId);
+        } else {
+            activationProvider.activationWasRemoved(activationId, userId, applicationId);
+        }
     }
 
     private Map<String, Object> processUserInfo(final UserInfoContext userInfoContext) {
@@ -534,6 +668,93 @@ public class ActivationService {
         return null;
     }
 
+    /**
+     * Start fetching user info. In case parallel user info is enabled, the user info is fetched on the activation
+     * executor while the activation is processed, otherwise it is fetched immediately on the calling thread.
+     * The activation must not be committed before the user info is awaited, so that a failure of the user info
+     * provider does not leave an activation committed by this service behind a failed request.
+     *
+     * @param userInfoContext User info context.
+     * @return Future with the user info.
+     */
+    private Future<Map<String, Object>> startUserInfo(final UserInfoContext userInfoContext) {
+        if (userInfoProvider == null || !configurationProperties.getUserInfo().isParallel()) {
+            return CompletableFuture.completedFuture(processUserInfo(userInfoContext));
+        }
+        final Map<String, String> callerContext = MDC.getCopyOfContextMap();
+        final FutureTask<Map<String, Object>> task = new FutureTask<>(() -> withMdcContext(callerContext, () -> processUserInfo(userInfoContext)));
+        try {
+            getActivationExecutor().execute(task);
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Concurrent user info fetch was rejected, fetching synchronously, error: {}", ex.getMessage());
+            task.run();
+        }
+        return task;
+    }
+
+    /**
+     * Wait for the user info fetched by {@link #startUserInfo(UserInfoContext)}.
+     *
+     * @param userInfoFuture Future with the user info.
+     * @return User info.
+     * @throws PowerAuthActivationException In case fetching user info fails or times out.
+     */
+    private Map<String, Object> awaitUserInfo(final Future<Map<String, Object>> userInfoFuture) throws PowerAuthActivationException {
+        try {
+            return userInfoFuture.get(configurationProperties.getUserInfo().getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            userInfoFuture.cancel(true);
+            throw new PowerAuthActivationException("Fetching user info timed out", ex);
+        } catch (InterruptedException ex) {
+            userInfoFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PowerAuthActivationException("Fetching user info was interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof final RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof final Error error) {
+                throw error;
+            }
+            throw new PowerAuthActivationException("Fetching user info failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Cancel fetching user info in case the activation processing failed before the user info was awaited,
+     * so that the fetch does not keep occupying an executor thread and the upstream call.
+     *
+     * @param userInfoFuture Future with the user info.
+     */
+    private static void cancelUserInfo(final Future<Map<String, Object>> userInfoFuture) {
+        if (!userInfoFuture.isDone()) {
+            userInfoFuture.cancel(true);
+        }
+    }
+
+    private static <T> T withMdcContext(final Map<String, String> context, final Supplier<T> supplier) {
+        final Map<String, String> previousContext = MDC.getCopyOfContextMap();
+        setMdcContext(context);
+        try {
+            return supplier.get();
+        } finally {
+            setMdcContext(previousContext);
+        }
+    }
+
+    private static void setMdcContext(final Map<String, String> context) {
+        if (context != null) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    private Executor getActivationExecutor() {
+        final Executor executor = activationExecutor;
+        return executor != null ? executor : PowerAuthDefaultExecutor.getInstance();
+    }
+
     private boolean shouldGenerateRecoveryCodes(final Map<String, String> identity, final Map<String, Object> customAttributes, final Map<String, Object> context) throws PowerAuthActivationException {
         if (activationProvider == null) {
             return true;
@@ -555,18 +776,18 @@ public class ActivationService {
             final GetActivationStatusRequest statusRequest = new GetActivationStatusRequest();
             statusRequest.setActivationId(activationId);
             statusRequest.setChallenge(challenge);
-            final GetActivationStatusResponse paResponse = powerAuthClient.getActivationStatus(
-                    statusRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final GetActivationStatusResponse paResponse = clientMetrics.record("getActivationStatus",
+                    () -> powerAuthClient.getActivationStatus(
+                            statusRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
             final ActivationStatusResponse response = new ActivationStatusResponse();
             response.setActivationId(paResponse.getActivationId());
             response.setEncryptedStatusBlob(paResponse.getEncryptedStatusBlob());
             response.setNonce(paResponse.getEncryptedStatusBlobNonce());
             if (applicationConfiguration != null) {
-                final ActivationContext activationContext = activationContextConverter.fromActivationDetailResponse(paResponse);
-                response.setCustomObject(applicationConfiguration.statusServiceCustomObject(activationContext));
+                response.setCustomObject(statusServiceCustomObject(paResponse));
             }
             return response;
         } catch (Exception ex) {
@@ -576,6 +797,36 @@ public class ActivationService {
         }
     }
 
+    /**
+     * Get custom object of the activation status, state-less custom objects are cached per application.
+     *
+     * @param paResponse Activation status response.
+     * @return Custom object.
+     */
+    private Map<String, Object> statusServiceCustomObject(final GetActivationStatusResponse paResponse) {
+        final Cache<String, Optional<Map<String, Object>>> cache = statusCustomObjects;
+        if (cache != null && paResponse.getApplicationId() != null) {
+            return cache.get(paResponse.getApplicationId(),
+                    applicationId -> Optional.ofNullable(applicationConfiguration.statusServiceCustomObject(createActivationContext(paResponse))))
+                    .orElse(null);
+        }
+        return applicationConfiguration.statusServiceCustomObject(createActivationContext(paResponse));
+    }
+
+    private ActivationContext createActivationContext(final GetActivationStatusResponse paResponse) {
+        final ActivationContext activationContext = activationContextConverter.fromActivationDetailResponseLazily(paResponse);
+        if (activationFlagsBuffer != null) {
+            // Include flags added on this node which were not written to PowerAuth server yet
+            final List<String> activationFlags = paResponse.getActivationFlags();
+            final List<String> mergedFlags = activationFlagsBuffer.mergePendingFlags(paResponse.getActivationId(), activationFlags);
+            if (mergedFlags != activationFlags) {
+                activationContext.getActivationFlags().clear();
+                activationContext.getActivationFlags().addAll(mergedFlags);
+            }
+        }
+        return activationContext;
+    }
+
     /**
      * Get activation detail.
      *
@@ -584,17 +835,27 @@ public class ActivationService {
      * @throws PowerAuthActivationException In case retrieving activation detail fails.
      */
     public ActivationDetailResponse getActivationDetail(String activationId) throws PowerAuthActivationException {
+        if (activationDetailCache != null) {
+            final ActivationDetailResponse cachedResponse = activationDetailCache.get(activationId);
+            if (cachedResponse != null) {
+                return cachedResponse;
+            }
+        }
         try {
             final GetActivationStatusRequest statusRequest = new GetActivationStatusRequest();
             statusRequest.setActivationId(activationId);
-            final GetActivationStatusResponse paResponse = powerAuthClient.getActivationStatus(
-                    statusRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final GetActivationStatusResponse paResponse = clientMetrics.record("getActivationStatus",
+                    () -> powerAuthClient.getActivationStatus(
+                            statusRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
             final ActivationDetailResponse response = new ActivationDetailResponse();
             response.setActivationId(paResponse.getActivationId());
             response.setActivationName(paResponse.getActivationName());
+            if (activationDetailCache != null) {
+                activationDetailCache.loaded(response);
+            }
             return response;
         } catch (Exception ex) {
             logger.warn("PowerAuth activation status check failed, error: {}", ex.getMessage());
@@ -616,14 +877,18 @@ public class ActivationService {
             final UpdateActivationNameRequest updateNameRequest = new UpdateActivationNameRequest();
             updateNameRequest.setActivationId(activationId);
             updateNameRequest.setActivationName(request.getActivationName());
-            final UpdateActivationNameResponse paResponse = powerAuthClient.updateActivationName(
-                    updateNameRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final UpdateActivationNameResponse paResponse = clientMetrics.record("updateActivationName",
+                    () -> powerAuthClient.updateActivationName(
+                            updateNameRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
             final ActivationDetailResponse response = new ActivationDetailResponse();
             response.setActivationId(paResponse.getActivationId());
             response.setActivationName(paResponse.getActivationName());
+            if (activationDetailCache != null) {
+                activationDetailCache.renamed(response);
+            }
             return response;
         } catch (Exception ex) {
             logger.warn("PowerAuth activation status check failed, error: {}", ex.getMessage());
@@ -656,20 +921,26 @@ public class ActivationService {
                 // revoke recovery codes
                 final boolean revokeCodes = activationProvider.shouldRevokeRecoveryCodeOnRemove(activationId, userId, applicationId);
                 removeRequest.setRevokeRecoveryCodes(revokeCodes);
-                paResponse = powerAuthClient.removeActivation(
-                        removeRequest,
-                        httpCustomizationService.getQueryParams(),
-                        httpCustomizationService.getHttpHeaders()
-                );
-                activationProvider.activationWasRemoved(activationId, userId, applicationId);
+                paResponse = clientMetrics.record("removeActivation",
+                        () -> powerAuthClient.removeActivation(
+                                removeRequest,
+                                httpCustomizationService.getQueryParams(),
+                                httpCustomizationService.getHttpHeaders()
+                        ));
+                notifyActivationRemoved(activationId, userId, applicationId);
             } else {
                 // do not revoke recovery codes
                 removeRequest.setRevokeRecoveryCodes(false);
-                paResponse = powerAuthClient.removeActivation(
-                        removeRequest,
-                        httpCustomizationService.getQueryParams(),
-                        httpCustomizationService.getHttpHeaders()
-                );
+                paResponse = clientMetrics.record("removeActivation",
+                        () -> powerAuthClient.removeActivation(
+                                removeRequest,
+                                httpCustomizationService.getQueryParams(),
+                                httpCustomizationService.getHttpHeaders()
+                        ));
+            }
+
+            if (activationDetailCache != null) {
+                activationDetailCache.removed(activationId);
             }
 
             // Prepare and return the response
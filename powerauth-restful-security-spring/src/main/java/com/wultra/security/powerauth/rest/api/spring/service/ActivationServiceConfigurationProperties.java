@@ -0,0 +1,149 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Configuration of the activation service.
+ */
+@Component
+@ConfigurationProperties(prefix = "powerauth.service.activation")
+@Getter
+@Setter
+public class ActivationServiceConfigurationProperties {
+
+    /**
+     * Fetching of user info during activation.
+     */
+    private UserInfo userInfo = new UserInfo();
+
+    /**
+     * Asynchronous delivery of activation callbacks of the custom activation provider.
+     */
+    private CallbackOutbox callbackOutbox = new CallbackOutbox();
+
+    /**
+     * Cache of activation details returned by the activation detail endpoint.
+     */
+    private DetailCache detailCache = new DetailCache();
+
+    /**
+     * User info configuration.
+     */
+    @Getter
+    @Setter
+    public static class UserInfo {
+
+        /**
+         * Whether user info is fetched concurrently with processing of custom attributes and activation flags.
+         */
+        private boolean parallel = false;
+
+        /**
+         * Maximum time to wait for the concurrently fetched user info.
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+
+    }
+
+    /**
+     * Callback outbox configuration.
+     */
+    @Getter
+    @Setter
+    public static class CallbackOutbox {
+
+        /**
+         * Whether activation commit and removal callbacks are stored in the outbox and delivered asynchronously.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory of the outbox, callbacks which were not delivered yet are stored there and replayed after restart.
+         */
+        private String directory;
+
+        /**
+         * Number of threads delivering the callbacks.
+         */
+        private int workers = 2;
+
+        /**
+         * Maximum number of callbacks waiting for delivery, callbacks above the limit are delivered on the calling thread.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Maximum number of delivery attempts, callbacks failing all attempts are moved to the dead letter directory.
+         */
+        private int maxAttempts = 10;
+
+        /**
+         * Delay before the first retry, the delay is doubled with each further attempt.
+         */
+        private Duration retryBackoff = Duration.ofSeconds(10);
+
+        /**
+         * Maximum delay between retries.
+         */
+        private Duration maxRetryBackoff = Duration.ofMinutes(10);
+
+        /**
+         * Identity attributes passed to the commit callback and stored in the outbox. Identity attributes may contain
+         * secrets, such as recovery codes, PUKs or credentials, so the attributes must be listed explicitly in case
+         * the outbox is enabled.
+         */
+        private Set<String> identityAttributes = new HashSet<>();
+
+    }
+
+    /**
+     * Activation detail cache configuration.
+     */
+    @Getter
+    @Setter
+    public static class DetailCache {
+
+        /**
+         * Whether activation details are cached.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Time to live of the cached activation details.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of cached activation details.
+         */
+        private long maximumSize = 10_000;
+
+    }
+
+}
@@ -26,6 +26,7 @@ import com.wultra.security.powerauth.client.model.response.TemporaryPublicKeyRes
 import com.wultra.security.powerauth.rest.api.model.request.TemporaryKeyRequest;
 import com.wultra.security.powerauth.rest.api.model.response.TemporaryKeyResponse;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthTemporaryKeyException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +45,8 @@ public class KeyStoreService {
     private final PowerAuthClient powerAuthClient;
     private final HttpCustomizationService httpCustomizationService;
 
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
     /**
      * Default autowiring constructor.
      * @param powerAuthClient PowerAuth Client
@@ -55,8 +58,23 @@ public class KeyStoreService {
         this.httpCustomizationService = httpCustomizationService;
     }
 
+    /**
+     * Set metrics of PowerAuth server calls.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+    }
+
     /**
      * Fetch a temporary public key with provided parameters.
+     * <p>
+     * The key is always requested from PowerAuth server and must not be served from a pool of keys fetched
+     * in advance. The request JWT is signed by the client and carries its challenge, which PowerAuth server binds
+     * to the temporary key and echoes in the signed response JWT, so a key issued for another request would be
+     * rejected by the client.
+     *
      * @param request Temporary public key request.
      * @return Response with temporary public key.
      * @throws PowerAuthTemporaryKeyException In case internal API call fails.
@@ -66,11 +84,12 @@ public class KeyStoreService {
             final TemporaryPublicKeyRequest publicKeyRequest = new TemporaryPublicKeyRequest();
             publicKeyRequest.setJwt(request.getJwt());
 
-            final TemporaryPublicKeyResponse temporaryPublicKeyResponse = powerAuthClient.fetchTemporaryPublicKey(
-                    publicKeyRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final TemporaryPublicKeyResponse temporaryPublicKeyResponse = clientMetrics.record("fetchTemporaryPublicKey",
+                    () -> powerAuthClient.fetchTemporaryPublicKey(
+                            publicKeyRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
 
             final TemporaryKeyResponse response = new TemporaryKeyResponse();
             response.setJwt(temporaryPublicKeyResponse.getJwt());
@@ -29,6 +29,8 @@ import com.wultra.security.powerauth.rest.api.spring.authentication.PowerAuthApi
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthAuthenticationException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthInvalidRequestException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthRecoveryConfirmationException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetricTags;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,6 +54,8 @@ public class RecoveryService {
     private final PowerAuthClient powerAuthClient;
     private final HttpCustomizationService httpCustomizationService;
 
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
     /**
      * Controller constructor.
      * @param powerAuthClient PowerAuth client.
@@ -63,6 +67,15 @@ public class RecoveryService {
         this.httpCustomizationService = httpCustomizationService;
     }
 
+    /**
+     * Set metrics of PowerAuth server calls.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+    }
+
     /**
      * Confirm recovery code.
      * @param request ECIES encrypted request.
@@ -90,11 +103,12 @@ public class RecoveryService {
             confirmRequest.setNonce(request.getNonce());
             confirmRequest.setProtocolVersion(httpHeader.getVersion());
             confirmRequest.setTimestamp(request.getTimestamp());
-            final ConfirmRecoveryCodeResponse paResponse = powerAuthClient.confirmRecoveryCode(
-                    confirmRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final ConfirmRecoveryCodeResponse paResponse = clientMetrics.record("confirmRecoveryCode", PowerAuthClientMetricTags.version(confirmRequest.getProtocolVersion()),
+                    () -> powerAuthClient.confirmRecoveryCode(
+                            confirmRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
             if (!paResponse.getActivationId().equals(activationId)) {
                 logger.warn("PowerAuth confirm recovery failed because of invalid activation ID in response");
                 throw new PowerAuthInvalidRequestException();
@@ -32,6 +32,8 @@ import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthAuthenti
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthSecureVaultException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthSignatureInvalidException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthSignatureTypeInvalidException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetricTags;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
 import com.wultra.security.powerauth.rest.api.spring.provider.PowerAuthAuthenticationProvider;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -61,6 +63,8 @@ public class SecureVaultService {
     private final PowerAuthAuthenticationProvider authenticationProvider;
     private final HttpCustomizationService httpCustomizationService;
 
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
     /**
      * Service constructor.
      * @param powerAuthClient PowerAuth client.
@@ -74,6 +78,15 @@ public class SecureVaultService {
         this.httpCustomizationService = httpCustomizationService;
     }
 
+    /**
+     * Set metrics of PowerAuth server calls.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+    }
+
     /**
      * Unlock secure vault.
      * @param header PowerAuth signature HTTP header.
@@ -118,11 +131,12 @@ public class SecureVaultService {
             unlockRequest.setMac(request.getMac());
             unlockRequest.setNonce(request.getNonce());
             unlockRequest.setTimestamp(request.getTimestamp());
-            final VaultUnlockResponse paResponse = powerAuthClient.unlockVault(
-                    unlockRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final VaultUnlockResponse paResponse = clientMetrics.record("unlockVault", PowerAuthClientMetricTags.signature(unlockRequest.getSignatureType(), unlockRequest.getSignatureVersion()),
+                    () -> powerAuthClient.unlockVault(
+                            unlockRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
 
             if (!paResponse.isSignatureValid()) {
                 logger.debug("Signature validation failed");
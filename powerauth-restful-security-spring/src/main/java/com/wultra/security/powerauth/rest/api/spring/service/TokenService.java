@@ -35,6 +35,8 @@ import com.wultra.security.powerauth.rest.api.spring.converter.SignatureTypeConv
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthAuthenticationException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthSignatureTypeInvalidException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthTokenErrorException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetricTags;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,6 +60,8 @@ public class TokenService {
     private final PowerAuthClient powerAuthClient;
     private final HttpCustomizationService httpCustomizationService;
 
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
     /**
      * Service constructor.
      * @param powerAuthClient PowerAuth client.
@@ -69,6 +73,15 @@ public class TokenService {
         this.httpCustomizationService = httpCustomizationService;
     }
 
+    /**
+     * Set metrics of PowerAuth server calls.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+    }
+
     /**
      * Create token.
      *
@@ -109,11 +122,12 @@ public class TokenService {
             tokenRequest.setSignatureType(signatureType);
             tokenRequest.setProtocolVersion(httpHeader.getVersion());
             tokenRequest.setTimestamp(request.getTimestamp());
-            final CreateTokenResponse token = powerAuthClient.createToken(
-                    tokenRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final CreateTokenResponse token = clientMetrics.record("createToken", PowerAuthClientMetricTags.signature(tokenRequest.getSignatureType(), tokenRequest.getProtocolVersion()),
+                    () -> powerAuthClient.createToken(
+                            tokenRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
 
             // Prepare a response
             final EciesEncryptedResponse response = new EciesEncryptedResponse();
@@ -149,11 +163,12 @@ public class TokenService {
             final RemoveTokenRequest removeRequest = new RemoveTokenRequest();
             removeRequest.setActivationId(activationId);
             removeRequest.setTokenId(tokenId);
-            powerAuthClient.removeToken(
-                    removeRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            clientMetrics.record("removeToken",
+                    () -> powerAuthClient.removeToken(
+                            removeRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
 
             // Prepare a response
             final TokenRemoveResponse response = new TokenRemoveResponse();
@@ -35,6 +35,8 @@ import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthAuthenti
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthUpgradeException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthInvalidRequestException;
 import com.wultra.security.powerauth.rest.api.spring.exception.authentication.PowerAuthSignatureInvalidException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetricTags;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
 import com.wultra.security.powerauth.rest.api.spring.provider.PowerAuthAuthenticationProvider;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -65,6 +67,8 @@ public class UpgradeService {
     private final PowerAuthAuthenticationProvider authenticationProvider;
     private final HttpCustomizationService httpCustomizationService;
 
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
     /**
      * Service constructor.
      * @param powerAuthClient PowerAuth client.
@@ -78,6 +82,15 @@ public class UpgradeService {
         this.httpCustomizationService = httpCustomizationService;
     }
 
+    /**
+     * Set metrics of PowerAuth server calls.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+    }
+
     /**
      * Start upgrade of activation to version 3.
      * @param request ECIES encrypted upgrade start request.
@@ -104,11 +117,12 @@ public class UpgradeService {
             upgradeRequest.setNonce(request.getNonce());
             upgradeRequest.setProtocolVersion(header.getVersion());
             upgradeRequest.setTimestamp(request.getTimestamp());
-            final StartUpgradeResponse upgradeResponse = powerAuthClient.startUpgrade(
-                    upgradeRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final StartUpgradeResponse upgradeResponse = clientMetrics.record("startUpgrade", PowerAuthClientMetricTags.version(upgradeRequest.getProtocolVersion()),
+                    () -> powerAuthClient.startUpgrade(
+                            upgradeRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
 
             // Prepare a response
             final EciesEncryptedResponse response = new EciesEncryptedResponse();
@@ -164,11 +178,12 @@ public class UpgradeService {
             final CommitUpgradeRequest commitRequest = new CommitUpgradeRequest();
             commitRequest.setActivationId(activationId);
             commitRequest.setApplicationKey(applicationKey);
-            final CommitUpgradeResponse upgradeResponse = powerAuthClient.commitUpgrade(
-                    commitRequest,
-                    httpCustomizationService.getQueryParams(),
-                    httpCustomizationService.getHttpHeaders()
-            );
+            final CommitUpgradeResponse upgradeResponse = clientMetrics.record("commitUpgrade",
+                    () -> powerAuthClient.commitUpgrade(
+                            commitRequest,
+                            httpCustomizationService.getQueryParams(),
+                            httpCustomizationService.getHttpHeaders()
+                    ));
 
             if (upgradeResponse.isCommitted()) {
                 return new Response();
@@ -25,6 +25,7 @@ import com.wultra.security.powerauth.client.model.error.PowerAuthClientException
 import com.wultra.security.powerauth.client.model.response.GetActivationStatusResponse;
 import com.wultra.security.powerauth.rest.api.model.entity.UserInfoStage;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthUserInfoException;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
 import com.wultra.security.powerauth.rest.api.spring.model.UserInfoContext;
 import com.wultra.security.powerauth.rest.api.spring.provider.UserInfoProvider;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +45,8 @@ public class UserInfoService {
     private UserInfoProvider userInfoProvider;
     private final PowerAuthClient powerAuthClient;
 
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
     /**
      * Service constructor.
      * @param powerAuthClient PowerAuthClient instance.
@@ -53,6 +56,15 @@ public class UserInfoService {
         this.powerAuthClient = powerAuthClient;
     }
 
+    /**
+     * Set metrics of PowerAuth server calls.
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+    }
+
     /**
      * Setter with optional user info provider bean.
      * @param userInfoProvider User info provider.
@@ -77,7 +89,7 @@ public class UserInfoService {
             }
 
             // Fetch activation details
-            final GetActivationStatusResponse activationStatusResponse = powerAuthClient.getActivationStatus(activationId);
+            final GetActivationStatusResponse activationStatusResponse = clientMetrics.record("getActivationStatus", () -> powerAuthClient.getActivationStatus(activationId));
             final String userId = activationStatusResponse.getUserId();
             final String applicationId = activationStatusResponse.getApplicationId();
             final ActivationStatus activationStatus = activationStatusResponse.getActivationStatus();
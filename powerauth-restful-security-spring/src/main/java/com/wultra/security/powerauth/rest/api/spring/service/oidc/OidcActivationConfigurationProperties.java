@@ -24,6 +24,11 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * OIDC (OpenID Connect) token endpoint request.
@@ -41,4 +46,157 @@ class OidcActivationConfigurationProperties {
      */
     private RestClientConfiguration restClientConfig = new RestClientConfiguration();
 
+    /**
+     * Cache of client registrations discovered via the issuer URI.
+     */
+    private ClientRegistrationCache clientRegistrationCache = new ClientRegistrationCache();
+
+    /**
+     * Cache of OIDC application configurations fetched from PowerAuth server.
+     */
+    private ApplicationConfigurationCache applicationConfigurationCache = new ApplicationConfigurationCache();
+
+    /**
+     * JWK sets used for ID token verification.
+     */
+    private JwkSet jwkSet = new JwkSet();
+
+    /**
+     * Warm-up of OIDC providers at application startup.
+     */
+    private WarmUp warmUp = new WarmUp();
+
+    /**
+     * Warm-up configuration.
+     */
+    @Getter
+    @Setter
+    static class WarmUp {
+
+        /**
+         * Whether OIDC providers are warmed up when the application is ready.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Keys of applications whose OIDC providers are warmed up.
+         */
+        private List<String> applicationKeys = new ArrayList<>();
+
+    }
+
+    /**
+     * JWK set configuration.
+     */
+    @Getter
+    @Setter
+    static class JwkSet {
+
+        /**
+         * Time to live of a cached JWK set.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * Time before the expiration of a cached JWK set when it is refreshed in the background.
+         */
+        private Duration refreshAheadTime = Duration.ofSeconds(30);
+
+        /**
+         * Maximum time to wait for a JWK set refresh performed by another thread.
+         */
+        private Duration refreshTimeout = Duration.ofSeconds(15);
+
+        /**
+         * Minimum interval between JWK set fetches, e.g. when tokens are signed by an unknown key.
+         */
+        private Duration minRefetchInterval = Duration.ofSeconds(30);
+
+        /**
+         * Connect timeout of a JWK set fetch.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Read timeout of a JWK set fetch.
+         */
+        private Duration readTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Maximum size of a JWK set.
+         */
+        private DataSize sizeLimit = DataSize.ofKilobytes(50);
+
+        /**
+         * Maximum number of cached ID token decoders. JWK sets are cached and refreshed only while a cached decoder
+         * uses them, so this also limits the number of JWK sets.
+         */
+        private long maximumDecoders = 1_000;
+
+    }
+
+    /**
+     * Application configuration cache configuration.
+     */
+    @Getter
+    @Setter
+    static class ApplicationConfigurationCache {
+
+        /**
+         * Whether OIDC application configurations are cached. If disabled, PowerAuth server is called for each activation.
+         * A provider removed from PowerAuth server is evicted on the next refresh.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Interval after which a cached configuration is refreshed in the background, while still being served.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(5);
+
+        /**
+         * Maximum age of a cached configuration, used while the refresh fails.
+         */
+        private Duration ttl = Duration.ofHours(1);
+
+        /**
+         * Maximum number of cached configurations.
+         */
+        private long maximumSize = 1_000;
+
+    }
+
+    /**
+     * Client registration cache configuration.
+     */
+    @Getter
+    @Setter
+    static class ClientRegistrationCache {
+
+        /**
+         * Whether client registrations are cached. If disabled, the discovery is performed for each activation.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Interval after which a discovered client registration is refreshed in the background.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(15);
+
+        /**
+         * Maximum age of a discovered client registration, used while the refresh fails.
+         */
+        private Duration ttl = Duration.ofHours(1);
+
+        /**
+         * Interval between discovery attempts of an unreachable issuer, the manual configuration is used meanwhile.
+         */
+        private Duration failureBackoff = Duration.ofMinutes(1);
+
+        /**
+         * Maximum number of cached client registrations.
+         */
+        private long maximumSize = 1_000;
+
+    }
+
 }
@@ -19,6 +19,7 @@
  */
 package com.wultra.security.powerauth.rest.api.spring.service.oidc;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -29,6 +30,7 @@ import lombok.Setter;
  */
 @Getter
 @Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class OidcApplicationConfiguration {
 
     private String providerId;
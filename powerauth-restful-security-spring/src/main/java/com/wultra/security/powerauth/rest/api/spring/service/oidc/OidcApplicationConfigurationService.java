@@ -19,8 +19,9 @@
  */
 package com.wultra.security.powerauth.rest.api.spring.service.oidc;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.wultra.security.powerauth.client.PowerAuthClient;
 import com.wultra.security.powerauth.client.model.entity.ApplicationConfigurationItem;
 import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
@@ -29,12 +30,15 @@ import com.wultra.security.powerauth.client.model.request.LookupApplicationByApp
 import com.wultra.security.powerauth.client.model.response.GetApplicationConfigResponse;
 import com.wultra.security.powerauth.client.model.response.LookupApplicationByAppKeyResponse;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthApplicationConfigurationException;
-import lombok.AllArgsConstructor;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
+import com.wultra.security.powerauth.rest.api.spring.service.JsonSerializationService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
 
 /**
  * Application configuration service for OIDC.
@@ -42,7 +46,6 @@ import java.util.Objects;
  * @author Lubos Racansky, lubos.racansky@wultra.com
  */
 @Component
-@AllArgsConstructor
 @Slf4j
 public class OidcApplicationConfigurationService {
 
@@ -50,47 +53,177 @@ public class OidcApplicationConfigurationService {
 
     private final PowerAuthClient powerAuthClient;
 
-    private final ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    // Converted configurations keyed by application key and provider ID, null when the cache is disabled
+    private final LoadingCache<OidcConfigurationQuery, OidcApplicationConfiguration> configurations;
+
+    private PowerAuthClientMetrics clientMetrics = PowerAuthClientMetrics.NOOP;
+
+    private volatile JsonSerializationService jsonSerializationService;
+
+    /**
+     * Service constructor with default cache configuration.
+     *
+     * @param powerAuthClient PowerAuth client.
+     */
+    public OidcApplicationConfigurationService(final PowerAuthClient powerAuthClient) {
+        this(powerAuthClient, new OidcActivationConfigurationProperties());
+    }
+
+    /**
+     * Service constructor.
+     *
+     * @param powerAuthClient PowerAuth client.
+     * @param configurationProperties OIDC activation configuration properties.
+     */
+    @Autowired
+    OidcApplicationConfigurationService(final PowerAuthClient powerAuthClient, final OidcActivationConfigurationProperties configurationProperties) {
+        this.powerAuthClient = powerAuthClient;
+        final OidcActivationConfigurationProperties.ApplicationConfigurationCache cacheConfiguration = configurationProperties.getApplicationConfigurationCache();
+        if (cacheConfiguration.isEnabled()) {
+            this.configurations = Caffeine.newBuilder()
+                    .maximumSize(cacheConfiguration.getMaximumSize())
+                    .refreshAfterWrite(cacheConfiguration.getRefreshInterval())
+                    .expireAfterWrite(cacheConfiguration.getTtl())
+                    .build(new ConfigurationLoader());
+        } else {
+            this.configurations = null;
+        }
+    }
+
+    /**
+     * Set metrics of PowerAuth server calls.
+     *
+     * @param clientMetrics PowerAuth server call metrics.
+     */
+    @Autowired(required = false)
+    public void setClientMetrics(final PowerAuthClientMetrics clientMetrics) {
+        this.clientMetrics = clientMetrics;
+    }
+
+    /**
+     * Set JSON serialization service shared by PowerAuth components.
+     *
+     * @param jsonSerializationService JSON serialization service.
+     */
+    @Autowired(required = false)
+    public void setJsonSerializationService(final JsonSerializationService jsonSerializationService) {
+        this.jsonSerializationService = jsonSerializationService;
+    }
 
     /**
-     * Provide OIDC application configuration.
+     * Provide OIDC application configuration. The configuration is cached, a cached configuration older than
+     * the refresh interval is served while it is being refreshed in the background.
      *
      * @param request Query object.
      * @return OIDC application configuration
      * @throws PowerAuthApplicationConfigurationException in case of error.
      */
     public OidcApplicationConfiguration fetchOidcApplicationConfiguration(final OidcConfigurationQuery request) throws PowerAuthApplicationConfigurationException {
+        if (configurations == null) {
+            return fetchFromServer(request);
+        }
         try {
-            final String applicationId = fetchApplicationIdByApplicationKey(request.applicationKey());
+            return configurations.get(request);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof final PowerAuthApplicationConfigurationException ex) {
+                throw ex;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Provide all OIDC application configurations of the given application, e.g. to warm up the OIDC providers.
+     * The configurations are stored in the cache.
+     *
+     * @param applicationKey Application key.
+     * @return OIDC application configurations, empty list if the application does not configure any provider.
+     * @throws PowerAuthApplicationConfigurationException in case of error.
+     */
+    public List<OidcApplicationConfiguration> fetchOidcApplicationConfigurations(final String applicationKey) throws PowerAuthApplicationConfigurationException {
+        try {
+            final String applicationId = fetchApplicationIdByApplicationKey(applicationKey);
+            final List<OidcApplicationConfiguration> result = fetchProviderConfigurations(applicationId);
+            if (configurations != null) {
+                result.forEach(it -> configurations.put(new OidcConfigurationQuery(it.getProviderId(), applicationKey), it));
+            }
+            return result;
+        } catch (PowerAuthClientException e) {
+            throw new PowerAuthApplicationConfigurationException("Fetching application configuration failed.", e);
+        }
+    }
+
+    /**
+     * Invalidate cached OIDC application configurations of the given application, e.g. after its configuration changed.
+     *
+     * @param applicationKey Application key.
+     */
+    public void invalidate(final String applicationKey) {
+        if (configurations != null) {
+            configurations.asMap().keySet().removeIf(it -> Objects.equals(it.applicationKey(), applicationKey));
+        }
+    }
+
+    /**
+     * Invalidate all cached OIDC application configurations.
+     */
+    public void invalidateAll() {
+        if (configurations != null) {
+            configurations.invalidateAll();
+        }
+    }
 
-            final GetApplicationConfigRequest configRequest = new GetApplicationConfigRequest();
-            configRequest.setApplicationId(applicationId);
-
-            final GetApplicationConfigResponse applicationConfig = powerAuthClient.getApplicationConfig(configRequest);
-            return applicationConfig.getApplicationConfigs().stream()
-                    .filter(it -> it.getKey().equals(OAUTH2_PROVIDERS))
-                    .findFirst()
-                    .map(ApplicationConfigurationItem::getValues)
-                    .map(it -> convert(it, request.providerId()))
-                    .orElseThrow(() ->
-                            new PowerAuthApplicationConfigurationException("Fetching application configuration failed, application ID: %s, provider ID: %s".formatted(applicationId, request.providerId())));
+    private OidcApplicationConfiguration fetchFromServer(final OidcConfigurationQuery request) throws PowerAuthApplicationConfigurationException {
+        try {
+            final String applicationId = fetchApplicationIdByApplicationKey(request.applicationKey());
+            final OidcApplicationConfiguration configuration = findProviderConfiguration(applicationId, request.providerId());
+            if (configuration == null) {
+                throw new PowerAuthApplicationConfigurationException("Fetching application configuration failed, application ID: %s, provider ID: %s".formatted(applicationId, request.providerId()));
+            }
+            return configuration;
         } catch (PowerAuthClientException e) {
             throw new PowerAuthApplicationConfigurationException("Fetching application configuration failed.", e);
         }
     }
 
-    private OidcApplicationConfiguration convert(List<Object> values, String providerId) {
+    /**
+     * Find configuration of the provider.
+     *
+     * @param applicationId Application ID.
+     * @param providerId Provider ID.
+     * @return OIDC application configuration, null in case the provider is not configured.
+     * @throws PowerAuthClientException In case PowerAuth server call fails.
+     */
+    private OidcApplicationConfiguration findProviderConfiguration(final String applicationId, final String providerId) throws PowerAuthClientException {
+        return fetchProviderConfigurations(applicationId).stream()
+                .filter(it -> Objects.equals(it.getProviderId(), providerId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private List<OidcApplicationConfiguration> fetchProviderConfigurations(final String applicationId) throws PowerAuthClientException {
+        final GetApplicationConfigRequest configRequest = new GetApplicationConfigRequest();
+        configRequest.setApplicationId(applicationId);
+
+        final GetApplicationConfigResponse applicationConfig = clientMetrics.record("getApplicationConfig", () -> powerAuthClient.getApplicationConfig(configRequest));
+        return applicationConfig.getApplicationConfigs().stream()
+                .filter(it -> it.getKey().equals(OAUTH2_PROVIDERS))
+                .findFirst()
+                .map(ApplicationConfigurationItem::getValues)
+                .map(this::convertAll)
+                .orElse(List.of());
+    }
+
+    private List<OidcApplicationConfiguration> convertAll(List<Object> values) {
         return values.stream()
                 .map(this::convert)
                 .filter(Objects::nonNull)
-                .filter(it -> it.getProviderId().equals(providerId))
-                .findFirst()
-                .orElse(null);
+                .toList();
     }
 
     private OidcApplicationConfiguration convert(Object value) {
         try {
-            return objectMapper.convertValue(value, OidcApplicationConfiguration.class);
+            return getJsonSerializationService().convertValue(value, OidcApplicationConfiguration.class);
         } catch (IllegalArgumentException e) {
             logger.warn("Unable to convert {}", value, e);
             return null;
@@ -101,8 +234,44 @@ public class OidcApplicationConfigurationService {
         final LookupApplicationByAppKeyRequest request = new LookupApplicationByAppKeyRequest();
         request.setApplicationKey(applicationKey);
 
-        final LookupApplicationByAppKeyResponse applicationResponse = powerAuthClient.lookupApplicationByAppKey(request);
+        final LookupApplicationByAppKeyResponse applicationResponse = clientMetrics.record("lookupApplicationByAppKey", () -> powerAuthClient.lookupApplicationByAppKey(request));
         return applicationResponse.getApplicationId();
     }
 
+    /**
+     * Cache loader evicting configurations of providers removed from PowerAuth server on refresh. The stale
+     * configuration is kept only in case PowerAuth server cannot be reached.
+     */
+    private class ConfigurationLoader implements CacheLoader<OidcConfigurationQuery, OidcApplicationConfiguration> {
+
+        @Override
+        public OidcApplicationConfiguration load(final OidcConfigurationQuery key) throws PowerAuthApplicationConfigurationException {
+            return fetchFromServer(key);
+        }
+
+        @Override
+        public OidcApplicationConfiguration reload(final OidcConfigurationQuery key, final OidcApplicationConfiguration oldValue) throws PowerAuthClientException {
+            final String applicationId = fetchApplicationIdByApplicationKey(key.applicationKey());
+            final OidcApplicationConfiguration configuration = findProviderConfiguration(applicationId, key.providerId());
+            if (configuration == null) {
+                logger.info("OIDC provider was removed from the application configuration, provider ID: {}", key.providerId());
+            }
+            // Returning null removes the entry
+            return configuration;
+        }
+    }
+
+    /**
+     * Get JSON serialization service, the default service is created only in case no service was set.
+     * @return JSON serialization service.
+     */
+    private JsonSerializationService getJsonSerializationService() {
+        JsonSerializationService service = jsonSerializationService;
+        if (service == null) {
+            service = new JsonSerializationService();
+            jsonSerializationService = service;
+        }
+        return service;
+    }
+
 }
@@ -0,0 +1,226 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service.oidc;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrations;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Provide OIDC client registrations, discovered via {@code /.well-known/openid-configuration} of the issuer.
+ * <p>
+ * Client registrations are cached per provider ID, issuer URI, client ID and hash of the remaining configuration,
+ * so that a changed application configuration results in a new registration. Discovered registrations are refreshed
+ * in the background. When the issuer is unreachable, the manual configuration is used and the discovery is retried
+ * in the background after the failure back-off, not on the activation path.
+ */
+@Component
+@Slf4j
+class OidcClientRegistrationProvider {
+
+    private final OidcActivationConfigurationProperties.ClientRegistrationCache cacheConfiguration;
+
+    private final LoadingCache<ClientRegistrationKey, CachedClientRegistration> clientRegistrations;
+
+    @Autowired
+    OidcClientRegistrationProvider(final OidcActivationConfigurationProperties configurationProperties) {
+        this.cacheConfiguration = configurationProperties.getClientRegistrationCache();
+        this.clientRegistrations = Caffeine.newBuilder()
+                .maximumSize(cacheConfiguration.getMaximumSize())
+                .expireAfterWrite(cacheConfiguration.getTtl())
+                .refreshAfterWrite(cacheConfiguration.getFailureBackoff())
+                .build(new ClientRegistrationLoader());
+    }
+
+    /**
+     * Get client registration for the given provider and its configuration.
+     *
+     * @param providerId Provider ID.
+     * @param configuration OIDC application configuration.
+     * @return Client registration.
+     */
+    ClientRegistration getClientRegistration(final String providerId, final OidcApplicationConfiguration configuration) {
+        if (!cacheConfiguration.isEnabled()) {
+            return discover(providerId, configuration).clientRegistration();
+        }
+        return clientRegistrations.get(new ClientRegistrationKey(providerId, configuration)).clientRegistration();
+    }
+
+    private static CachedClientRegistration discover(final String providerId, final OidcApplicationConfiguration configuration) {
+        logger.debug("Trying to configure via {}/.well-known/openid-configuration", configuration.getIssuerUri());
+        try {
+            final ClientRegistration clientRegistration = ClientRegistrations.fromOidcIssuerLocation(configuration.getIssuerUri())
+                    .clientId(configuration.getClientId())
+                    .clientSecret(configuration.getClientSecret())
+                    .redirectUri(configuration.getRedirectUri())
+                    .build();
+            return new CachedClientRegistration(clientRegistration, true, System.nanoTime());
+        } catch (Exception e) {
+            logger.info("Unable to reach {}/.well-known/openid-configuration, fallback to manual config; {}", configuration.getIssuerUri(), e.getMessage());
+            logger.debug("Unable to reach {}/.well-known/openid-configuration", configuration.getIssuerUri(), e);
+            final ClientRegistration clientRegistration = ClientRegistration.withRegistrationId(providerId)
+                    .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                    .clientId(configuration.getClientId())
+                    .clientSecret(configuration.getClientSecret())
+                    .clientAuthenticationMethod(convert(configuration.getClientAuthenticationMethod()))
+                    .tokenUri(configuration.getTokenUri())
+                    .jwkSetUri(configuration.getJwkSetUri())
+                    .authorizationUri(configuration.getAuthorizeUri())
+                    .redirectUri(configuration.getRedirectUri())
+                    .build();
+            return new CachedClientRegistration(clientRegistration, false, System.nanoTime());
+        }
+    }
+
+    private static ClientAuthenticationMethod convert(final com.wultra.security.powerauth.rest.api.spring.service.oidc.ClientAuthenticationMethod source) {
+        return switch(source) {
+            case CLIENT_SECRET_POST -> ClientAuthenticationMethod.CLIENT_SECRET_POST;
+            case CLIENT_SECRET_BASIC -> ClientAuthenticationMethod.CLIENT_SECRET_BASIC;
+        };
+    }
+
+    private static boolean isOlderThan(final CachedClientRegistration value, final Duration duration) {
+        return System.nanoTime() - value.loadedAt() >= duration.toNanos();
+    }
+
+    /**
+     * Loader of client registrations. Refresh is triggered after the failure back-off, discovered registrations
+     * are refreshed only after the refresh interval though. In case the refresh of a discovered registration fails,
+     * the registration is kept until its time to live elapses.
+     */
+    private class ClientRegistrationLoader implements CacheLoader<ClientRegistrationKey, CachedClientRegistration> {
+
+        @Override
+        public CachedClientRegistration load(final ClientRegistrationKey key) {
+            return discover(key.providerId(), key.configuration());
+        }
+
+        @Override
+        public CompletableFuture<? extends CachedClientRegistration> asyncReload(final ClientRegistrationKey key, final CachedClientRegistration oldValue, final Executor executor) throws Exception {
+            if (oldValue.discovered() && !isOlderThan(oldValue, cacheConfiguration.getRefreshInterval())) {
+                return CompletableFuture.completedFuture(oldValue);
+            }
+            return CacheLoader.super.asyncReload(key, oldValue, executor);
+        }
+
+        @Override
+        public CachedClientRegistration reload(final ClientRegistrationKey key, final CachedClientRegistration oldValue) {
+            final CachedClientRegistration value = load(key);
+            if (!value.discovered() && oldValue.discovered() && !isOlderThan(oldValue, cacheConfiguration.getTtl())) {
+                logger.debug("Keeping previously discovered client registration, provider ID: {}", key.providerId());
+                return oldValue;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Cached client registration.
+     *
+     * @param clientRegistration Client registration.
+     * @param discovered Whether the registration was discovered via the issuer URI, or created from the manual configuration.
+     * @param loadedAt Load time, in nanoseconds of {@link System#nanoTime()}.
+     */
+    private record CachedClientRegistration(ClientRegistration clientRegistration, boolean discovered, long loadedAt) {
+    }
+
+    /**
+     * Cache key. The configuration is carried to be able to load the registration, only its hash is compared though.
+     */
+    private static final class ClientRegistrationKey {
+
+        private final String providerId;
+        private final String issuerUri;
+        private final String clientId;
+        private final String configurationHash;
+        private final OidcApplicationConfiguration configuration;
+
+        private ClientRegistrationKey(final String providerId, final OidcApplicationConfiguration configuration) {
+            this.providerId = providerId;
+            this.issuerUri = configuration.getIssuerUri();
+            this.clientId = configuration.getClientId();
+            this.configurationHash = hash(configuration);
+            this.configuration = configuration;
+        }
+
+        String providerId() {
+            return providerId;
+        }
+
+        OidcApplicationConfiguration configuration() {
+            return configuration;
+        }
+
+        private static String hash(final OidcApplicationConfiguration configuration) {
+            final String data = String.join("\n", Stream.of(
+                            configuration.getClientSecret(),
+                            configuration.getClientAuthenticationMethod(),
+                            configuration.getTokenUri(),
+                            configuration.getJwkSetUri(),
+                            configuration.getRedirectUri(),
+                            configuration.getAuthorizeUri())
+                    .map(it -> Objects.toString(it, ""))
+                    .toList());
+            try {
+                final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return HexFormat.of().formatHex(digest.digest(data.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof final ClientRegistrationKey that)) {
+                return false;
+            }
+            return Objects.equals(providerId, that.providerId)
+                    && Objects.equals(issuerUri, that.issuerUri)
+                    && Objects.equals(clientId, that.clientId)
+                    && configurationHash.equals(that.configurationHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(providerId, issuerUri, clientId, configurationHash);
+        }
+    }
+
+}
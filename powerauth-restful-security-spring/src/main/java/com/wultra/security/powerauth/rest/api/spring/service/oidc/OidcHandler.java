@@ -25,20 +25,14 @@ import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthApplicat
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenDecoderFactory;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
-import org.springframework.security.oauth2.client.registration.ClientRegistrations;
-import org.springframework.security.oauth2.core.AuthorizationGrantType;
-import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Wrap OIDC (OpenID Connect) client calls, add other logic such as validation.
@@ -49,20 +43,21 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class OidcHandler {
 
-    private final Map<String, SignatureAlgorithm> signatureAlgorithms = new ConcurrentHashMap<>();
-
-    private final OidcIdTokenDecoderFactory oidcIdTokenDecoderFactory;
-
     private final OidcTokenClient tokenClient;
 
     private final OidcApplicationConfigurationService applicationConfigurationService;
 
+    private final OidcClientRegistrationProvider clientRegistrationProvider;
+
+    private final OidcJwkSetManager jwkSetManager;
+
     @Autowired
-    OidcHandler(final OidcTokenClient tokenClient, final OidcApplicationConfigurationService applicationConfigurationService) {
+    OidcHandler(final OidcTokenClient tokenClient, final OidcApplicationConfigurationService applicationConfigurationService,
+                final OidcClientRegistrationProvider clientRegistrationProvider, final OidcJwkSetManager jwkSetManager) {
         this.tokenClient = tokenClient;
         this.applicationConfigurationService = applicationConfigurationService;
-        oidcIdTokenDecoderFactory = new OidcIdTokenDecoderFactory();
-        oidcIdTokenDecoderFactory.setJwsAlgorithmResolver(clientRegistration -> signatureAlgorithms.get(clientRegistration.getRegistrationId()));
+        this.clientRegistrationProvider = clientRegistrationProvider;
+        this.jwkSetManager = jwkSetManager;
     }
 
     /**
@@ -76,9 +71,8 @@ public class OidcHandler {
         final OidcApplicationConfiguration oidcApplicationConfiguration = fetchOidcApplicationConfiguration(request);
         validate(request, oidcApplicationConfiguration);
 
-        final ClientRegistration clientRegistration = createClientRegistration(request.getProviderId(), oidcApplicationConfiguration);
-
-        signatureAlgorithms.putIfAbsent(clientRegistration.getRegistrationId(), mapSignatureAlgorithmFromConfiguration(oidcApplicationConfiguration));
+        final ClientRegistration clientRegistration = clientRegistrationProvider.getClientRegistration(request.getProviderId(), oidcApplicationConfiguration);
+        final SignatureAlgorithm signatureAlgorithm = mapSignatureAlgorithmFromConfiguration(oidcApplicationConfiguration);
 
         final TokenRequest tokenRequest = TokenRequest.builder()
                 .code(request.getCode())
@@ -87,7 +81,7 @@ public class OidcHandler {
                 .build();
 
         final TokenResponse tokenResponse = fetchToken(tokenRequest);
-        final Jwt idToken = verifyAndDecode(tokenResponse, clientRegistration, request.getNonce());
+        final Jwt idToken = verifyAndDecode(tokenResponse, clientRegistration, signatureAlgorithm, request.getNonce());
 
         return idToken.getSubject();
     }
@@ -98,37 +92,6 @@ public class OidcHandler {
         }
     }
 
-    private static ClientRegistration createClientRegistration(final String providerId, final OidcApplicationConfiguration oidcApplicationConfiguration) {
-        logger.debug("Trying to configure via {}/.well-known/openid-configuration", oidcApplicationConfiguration.getIssuerUri());
-        try {
-            return ClientRegistrations.fromOidcIssuerLocation(oidcApplicationConfiguration.getIssuerUri())
-                    .clientId(oidcApplicationConfiguration.getClientId())
-                    .clientSecret(oidcApplicationConfiguration.getClientSecret())
-                    .redirectUri(oidcApplicationConfiguration.getRedirectUri())
-                    .build();
-        } catch (Exception e) {
-            logger.info("Unable to reach {}/.well-known/openid-configuration, fallback to manual config; {}", oidcApplicationConfiguration.getIssuerUri(), e.getMessage());
-            logger.debug("Unable to reach {}/.well-known/openid-configuration", oidcApplicationConfiguration.getIssuerUri(), e);
-            return ClientRegistration.withRegistrationId(providerId)
-                    .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
-                    .clientId(oidcApplicationConfiguration.getClientId())
-                    .clientSecret(oidcApplicationConfiguration.getClientSecret())
-                    .clientAuthenticationMethod(convert(oidcApplicationConfiguration.getClientAuthenticationMethod()))
-                    .tokenUri(oidcApplicationConfiguration.getTokenUri())
-                    .jwkSetUri(oidcApplicationConfiguration.getJwkSetUri())
-                    .authorizationUri(oidcApplicationConfiguration.getAuthorizeUri())
-                    .redirectUri(oidcApplicationConfiguration.getRedirectUri())
-                    .build();
-        }
-    }
-
-    private static ClientAuthenticationMethod convert(final com.wultra.security.powerauth.rest.api.spring.service.oidc.ClientAuthenticationMethod source) {
-        return switch(source) {
-            case CLIENT_SECRET_POST -> ClientAuthenticationMethod.CLIENT_SECRET_POST;
-            case CLIENT_SECRET_BASIC -> ClientAuthenticationMethod.CLIENT_SECRET_BASIC;
-        };
-    }
-
     private OidcApplicationConfiguration fetchOidcApplicationConfiguration(final OidcActivationContext request) throws PowerAuthActivationException {
         try {
             return applicationConfigurationService.fetchOidcApplicationConfiguration(OidcConfigurationQuery.builder()
@@ -152,10 +115,9 @@ public class OidcHandler {
         }
     }
 
-    private Jwt verifyAndDecode(final TokenResponse tokenResponse, final ClientRegistration clientRegistration, final String nonce) throws PowerAuthActivationException {
-        final JwtDecoder jwtDecoder = oidcIdTokenDecoderFactory.createDecoder(clientRegistration);
-
+    private Jwt verifyAndDecode(final TokenResponse tokenResponse, final ClientRegistration clientRegistration, final SignatureAlgorithm signatureAlgorithm, final String nonce) throws PowerAuthActivationException {
         try {
+            final JwtDecoder jwtDecoder = jwkSetManager.getDecoder(clientRegistration, signatureAlgorithm);
             final Jwt idTokenJwt = jwtDecoder.decode(tokenResponse.getIdToken());
             validate(idTokenJwt, nonce, tokenResponse);
             return idTokenJwt;
@@ -173,7 +135,7 @@ public class OidcHandler {
         }
     }
 
-    private static SignatureAlgorithm mapSignatureAlgorithmFromConfiguration(final OidcApplicationConfiguration oidcApplicationConfiguration) {
+    static SignatureAlgorithm mapSignatureAlgorithmFromConfiguration(final OidcApplicationConfiguration oidcApplicationConfiguration) {
         final String signatureAlgorithmString = oidcApplicationConfiguration.getSignatureAlgorithm();
         final SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.from(signatureAlgorithmString);
         return Objects.requireNonNullElse(signatureAlgorithm, SignatureAlgorithm.RS256);
@@ -0,0 +1,291 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service.oidc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.wultra.security.powerauth.rest.api.spring.metrics.PowerAuthClientMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenDecoderFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenValidator;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.converter.ClaimTypeConverter;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Manage JWK sets used for OIDC ID token verification.
+ * <p>
+ * JWK sets are cached per JWK set URI and refreshed ahead of their expiration in the background. A token signed
+ * by an unknown key triggers a refetch of the JWK set, which is rate limited, so that a key rotation is picked up
+ * without a flood of requests to the identity provider. ID token decoders are cached per client registration,
+ * JWK set URI and signature algorithm, so that a changed configuration results in a new decoder. A JWK set is shared
+ * by the decoders using the same JWK set URI and its background refresh is stopped once the last of these decoders
+ * is evicted, so the number of JWK sets is limited by the maximum number of decoders.
+ */
+@Component
+@Slf4j
+class OidcJwkSetManager {
+
+    private final OidcActivationConfigurationProperties.JwkSet configuration;
+
+    // JWK sources by JWK set URI, each source is closed once no cached decoder uses it
+    private final Map<String, SharedJwkSource> jwkSources = new ConcurrentHashMap<>();
+
+    private final Cache<DecoderKey, JwtDecoder> decoders;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder unknownKeys = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder fetchFailures = new LongAdder();
+
+    @Autowired
+    OidcJwkSetManager(final OidcActivationConfigurationProperties configurationProperties) {
+        this.configuration = configurationProperties.getJwkSet();
+        this.decoders = Caffeine.newBuilder()
+                .maximumSize(configuration.getMaximumDecoders())
+                .removalListener((DecoderKey key, JwtDecoder decoder, RemovalCause cause) -> {
+                    if (key != null) {
+                        releaseJwkSource(key.jwkSetUri());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Register JWK set statistics for monitoring.
+     *
+     * @param clientMetrics Metrics.
+     */
+    @Autowired(required = false)
+    void setClientMetrics(final PowerAuthClientMetrics clientMetrics) {
+        clientMetrics.monitorCounter("powerauth.oidc.jwks.lookups", "Key lookups in OIDC JWK sets", lookups::sum);
+        clientMetrics.monitorCounter("powerauth.oidc.jwks.unknown.keys", "Key lookups not matching any key of OIDC JWK sets", unknownKeys::sum);
+        clientMetrics.monitorCounter("powerauth.oidc.jwks.fetches", "Downloads of OIDC JWK sets", fetches::sum);
+        clientMetrics.monitorCounter("powerauth.oidc.jwks.fetch.failures", "Failed downloads of OIDC JWK sets", fetchFailures::sum);
+    }
+
+    /**
+     * Get ID token decoder for the given client registration and signature algorithm.
+     *
+     * @param clientRegistration Client registration.
+     * @param signatureAlgorithm Signature algorithm.
+     * @return ID token decoder.
+     * @throws JwtException In case the client registration does not define JWK set URI.
+     */
+    JwtDecoder getDecoder(final ClientRegistration clientRegistration, final SignatureAlgorithm signatureAlgorithm) {
+        final String jwkSetUri = clientRegistration.getProviderDetails().getJwkSetUri();
+        if (StringUtils.isBlank(jwkSetUri)) {
+            throw new JwtException("Failed to find a signature verifier for client registration: %s, JWK set URI is missing".formatted(clientRegistration.getRegistrationId()));
+        }
+        final DecoderKey key = new DecoderKey(clientRegistration.getRegistrationId(), clientRegistration.getClientId(),
+                clientRegistration.getProviderDetails().getIssuerUri(), jwkSetUri, signatureAlgorithm);
+        return decoders.get(key, k -> createDecoder(clientRegistration, signatureAlgorithm));
+    }
+
+    /**
+     * Fetch the JWK set of the given client registration unless it is cached already, e.g. during application warm-up.
+     *
+     * @param clientRegistration Client registration.
+     * @param signatureAlgorithm Signature algorithm.
+     */
+    void prefetch(final ClientRegistration clientRegistration, final SignatureAlgorithm signatureAlgorithm) {
+        final String jwkSetUri = clientRegistration.getProviderDetails().getJwkSetUri();
+        if (StringUtils.isBlank(jwkSetUri)) {
+            return;
+        }
+        getDecoder(clientRegistration, signatureAlgorithm);
+        try {
+            final SharedJwkSource jwkSource = jwkSources.get(jwkSetUri);
+            if (jwkSource != null) {
+                jwkSource.source().get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            }
+        } catch (KeySourceException e) {
+            logger.warn("Unable to prefetch JWK set: {}, {}", jwkSetUri, e.getMessage());
+            logger.debug("Unable to prefetch JWK set: {}", jwkSetUri, e);
+        }
+    }
+
+    /**
+     * Stop background refresh of the JWK sets.
+     */
+    @PreDestroy
+    void close() {
+        decoders.invalidateAll();
+        jwkSources.values().forEach(shared -> closeJwkSource(shared.source()));
+        jwkSources.clear();
+    }
+
+    private JwtDecoder createDecoder(final ClientRegistration clientRegistration, final SignatureAlgorithm signatureAlgorithm) {
+        final JWSAlgorithm algorithm = JWSAlgorithm.parse(signatureAlgorithm.getName());
+        final DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        // The reference is released by the removal listener once the decoder is evicted
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithm,
+                acquireJwkSource(clientRegistration.getProviderDetails().getJwkSetUri())));
+        // Claims are validated by the Spring Security validators below, same as OidcIdTokenDecoderFactory does
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        final NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(new JwtTimestampValidator(), new OidcIdTokenValidator(clientRegistration)));
+        decoder.setClaimSetConverter(new ClaimTypeConverter(OidcIdTokenDecoderFactory.createDefaultClaimTypeConverters()));
+        return decoder;
+    }
+
+    private JWKSource<SecurityContext> acquireJwkSource(final String jwkSetUri) {
+        return jwkSources.compute(jwkSetUri, (uri, shared) -> shared == null
+                ? new SharedJwkSource(createJwkSource(uri), 1)
+                : new SharedJwkSource(shared.source(), shared.references() + 1)).source();
+    }
+
+    private void releaseJwkSource(final String jwkSetUri) {
+        jwkSources.computeIfPresent(jwkSetUri, (uri, shared) -> {
+            if (shared.references() > 1) {
+                return new SharedJwkSource(shared.source(), shared.references() - 1);
+            }
+            logger.debug("Stopping refresh of JWK set no longer in use: {}", uri);
+            closeJwkSource(shared.source());
+            return null;
+        });
+    }
+
+    private static void closeJwkSource(final JWKSource<SecurityContext> source) {
+        if (source instanceof final Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                logger.debug("Unable to close JWK source", e);
+            }
+        }
+    }
+
+    private JWKSource<SecurityContext> createJwkSource(final String jwkSetUri) {
+        final URL url;
+        try {
+            url = URI.create(jwkSetUri).toURL();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JwtException("Invalid JWK set URI: " + jwkSetUri, e);
+        }
+        final ResourceRetriever resourceRetriever = new CountingResourceRetriever(new DefaultResourceRetriever(
+                (int) configuration.getConnectTimeout().toMillis(),
+                (int) configuration.getReadTimeout().toMillis(),
+                (int) configuration.getSizeLimit().toBytes()));
+        final JWKSource<SecurityContext> jwkSource = JWKSourceBuilder.create(url, resourceRetriever)
+                .cache(configuration.getTtl().toMillis(), configuration.getRefreshTimeout().toMillis())
+                .refreshAheadCache(configuration.getRefreshAheadTime().toMillis(), true)
+                .rateLimited(configuration.getMinRefetchInterval().toMillis())
+                .build();
+        return new CountingJwkSource(jwkSource);
+    }
+
+    /**
+     * Resource retriever recording JWK set downloads.
+     */
+    private class CountingResourceRetriever implements ResourceRetriever {
+
+        private final ResourceRetriever delegate;
+
+        CountingResourceRetriever(final ResourceRetriever delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Resource retrieveResource(final URL url) throws IOException {
+            fetches.increment();
+            logger.debug("Fetching JWK set: {}", url);
+            try {
+                return delegate.retrieveResource(url);
+            } catch (IOException | RuntimeException e) {
+                fetchFailures.increment();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * JWK source recording key lookups.
+     */
+    private class CountingJwkSource implements JWKSource<SecurityContext>, Closeable {
+
+        private final JWKSource<SecurityContext> delegate;
+
+        CountingJwkSource(final JWKSource<SecurityContext> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<JWK> get(final JWKSelector jwkSelector, final SecurityContext context) throws KeySourceException {
+            lookups.increment();
+            final List<JWK> keys = delegate.get(jwkSelector, context);
+            if (keys.isEmpty()) {
+                unknownKeys.increment();
+            }
+            return keys;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate instanceof final Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * JWK source with the number of cached decoders using it.
+     */
+    private record SharedJwkSource(JWKSource<SecurityContext> source, int references) {
+    }
+
+    private record DecoderKey(String registrationId, String clientId, String issuerUri, String jwkSetUri, SignatureAlgorithm signatureAlgorithm) {
+    }
+
+}
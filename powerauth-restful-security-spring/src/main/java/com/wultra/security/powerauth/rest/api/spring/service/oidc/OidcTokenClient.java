@@ -23,9 +23,10 @@ import com.wultra.core.rest.client.base.DefaultRestClient;
 import com.wultra.core.rest.client.base.RestClient;
 import com.wultra.core.rest.client.base.RestClientConfiguration;
 import com.wultra.core.rest.client.base.RestClientException;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -41,11 +42,21 @@ import org.springframework.util.MultiValueMap;
  * @author Lubos Racansky, lubos.racansky@wultra.com
  */
 @Component
-@AllArgsConstructor
 @Slf4j
 class OidcTokenClient {
 
-    private OidcActivationConfigurationProperties configurationProperties;
+    private final OidcActivationConfigurationProperties configurationProperties;
+
+    /**
+     * REST client shared by all token endpoint calls to reuse its connection pool, created lazily.
+     * Client credentials are set per request, the client itself does not carry them.
+     */
+    private volatile RestClient restClient;
+
+    @Autowired
+    OidcTokenClient(final OidcActivationConfigurationProperties configurationProperties) {
+        this.configurationProperties = configurationProperties;
+    }
 
     /**
      * Call token endpoint using {@code authorization_code} flow. Mind that <strong>the token is not verified yet</strong>.
@@ -78,11 +89,13 @@ class OidcTokenClient {
             map.add("client_secret", clientRegistration.getClientSecret());
         }
 
-        final RestClient restClient = createRestClient(tokenRequest);
+        if (clientAuthenticationMethod == null || clientAuthenticationMethod == org.springframework.security.oauth2.core.ClientAuthenticationMethod.CLIENT_SECRET_BASIC) {
+            headers.setBasicAuth(clientRegistration.getClientId(), clientRegistration.getClientSecret());
+        }
 
         final String tokenUrl = clientRegistration.getProviderDetails().getTokenUri();
         logger.debug("Calling token endpoint: {}", tokenUrl);
-        final ResponseEntity<TokenResponse> response = restClient.post(tokenUrl, map, null, headers, new ParameterizedTypeReference<>(){});
+        final ResponseEntity<TokenResponse> response = getRestClient().post(tokenUrl, map, null, headers, new ParameterizedTypeReference<>(){});
         logger.debug("Token endpoint call finished: {}", tokenUrl);
 
         if (response == null) {
@@ -92,13 +105,31 @@ class OidcTokenClient {
         return response.getBody();
     }
 
-    private RestClient createRestClient(final TokenRequest tokenRequest) throws RestClientException {
-        final RestClientConfiguration restClientConfiguration = configurationProperties.getRestClientConfig();
-        final org.springframework.security.oauth2.core.ClientAuthenticationMethod clientAuthenticationMethod = tokenRequest.getClientRegistration().getClientAuthenticationMethod();
-        restClientConfiguration.setHttpBasicAuthEnabled(clientAuthenticationMethod == null || clientAuthenticationMethod == org.springframework.security.oauth2.core.ClientAuthenticationMethod.CLIENT_SECRET_BASIC);
-        restClientConfiguration.setHttpBasicAuthUsername(tokenRequest.getClientRegistration().getClientId());
-        restClientConfiguration.setHttpBasicAuthPassword(tokenRequest.getClientRegistration().getClientSecret());
+    /**
+     * Create the REST client ahead of the first token request.
+     *
+     * @throws RestClientException in case of error.
+     */
+    void warmUp() throws RestClientException {
+        getRestClient();
+    }
 
-        return new DefaultRestClient(restClientConfiguration);
+    private RestClient getRestClient() throws RestClientException {
+        RestClient client = restClient;
+        if (client == null) {
+            synchronized (this) {
+                client = restClient;
+                if (client == null) {
+                    // Copy the configuration, the bound configuration properties must not be changed
+                    final RestClientConfiguration restClientConfiguration = new RestClientConfiguration();
+                    BeanUtils.copyProperties(configurationProperties.getRestClientConfig(), restClientConfiguration);
+                    // Credentials differ per client registration, they are set as a request header
+                    restClientConfiguration.setHttpBasicAuthEnabled(false);
+                    client = new DefaultRestClient(restClientConfiguration);
+                    restClient = client;
+                }
+            }
+        }
+        return client;
     }
 }
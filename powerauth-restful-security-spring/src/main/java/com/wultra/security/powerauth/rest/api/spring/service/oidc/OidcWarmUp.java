@@ -0,0 +1,135 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service.oidc;
+
+import com.wultra.core.rest.client.base.RestClientException;
+import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthApplicationConfigurationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Warm up OIDC providers of the configured applications when the application is ready, so that the first OIDC
+ * activations do not pay for the discovery, JWK set download and, in case the application configuration cache
+ * is enabled, the configuration lookup.
+ * <p>
+ * The warm-up runs on {@link ApplicationReadyEvent}, when the server is already listening, so early requests may
+ * still arrive before the warm-up completes. In case Spring Boot Actuator is available, the {@code oidcWarmUp}
+ * health indicator reports {@code OUT_OF_SERVICE} until the warm-up completes, even if it fails unexpectedly,
+ * and may be included in the readiness health group to keep traffic away meanwhile.
+ */
+@Component
+@Slf4j
+class OidcWarmUp implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final OidcActivationConfigurationProperties.WarmUp configuration;
+    private final OidcApplicationConfigurationService applicationConfigurationService;
+    private final OidcClientRegistrationProvider clientRegistrationProvider;
+    private final OidcJwkSetManager jwkSetManager;
+    private final OidcTokenClient tokenClient;
+
+    // Failed warm-up steps, keyed by application key and provider ID
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+
+    private volatile boolean completed;
+
+    @Autowired
+    OidcWarmUp(final OidcActivationConfigurationProperties configurationProperties, final OidcApplicationConfigurationService applicationConfigurationService,
+               final OidcClientRegistrationProvider clientRegistrationProvider, final OidcJwkSetManager jwkSetManager, final OidcTokenClient tokenClient) {
+        this.configuration = configurationProperties.getWarmUp();
+        this.applicationConfigurationService = applicationConfigurationService;
+        this.clientRegistrationProvider = clientRegistrationProvider;
+        this.jwkSetManager = jwkSetManager;
+        this.tokenClient = tokenClient;
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+        logger.info("Warming up OIDC providers of {} applications", configuration.getApplicationKeys().size());
+        try {
+            try {
+                tokenClient.warmUp();
+            } catch (RestClientException | RuntimeException e) {
+                logger.warn("Unable to create OIDC token client, {}", e.getMessage());
+                logger.debug("Unable to create OIDC token client", e);
+                failures.put("tokenClient", String.valueOf(e.getMessage()));
+            }
+            configuration.getApplicationKeys().forEach(this::warmUp);
+            logger.info("OIDC providers warmed up, failures: {}", failures.size());
+        } finally {
+            // The warm-up is best effort, the readiness must not stay down after an unexpected failure
+            completed = true;
+        }
+    }
+
+    /**
+     * Whether the warm-up has completed, regardless of its failures.
+     *
+     * @return True if the warm-up has completed.
+     */
+    boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Get failed warm-up steps.
+     *
+     * @return Failure messages keyed by application key and provider ID.
+     */
+    Map<String, String> getFailures() {
+        return Map.copyOf(failures);
+    }
+
+    private void warmUp(final String applicationKey) {
+        final List<OidcApplicationConfiguration> configurations;
+        try {
+            configurations = applicationConfigurationService.fetchOidcApplicationConfigurations(applicationKey);
+        } catch (PowerAuthApplicationConfigurationException | RuntimeException e) {
+            logger.warn("Unable to fetch OIDC configuration of application key: {}, {}", applicationKey, e.getMessage());
+            logger.debug("Unable to fetch OIDC configuration of application key: {}", applicationKey, e);
+            failures.put(applicationKey, String.valueOf(e.getMessage()));
+            return;
+        }
+
+        for (final OidcApplicationConfiguration oidcApplicationConfiguration : configurations) {
+            final String providerId = oidcApplicationConfiguration.getProviderId();
+            try {
+                final ClientRegistration clientRegistration = clientRegistrationProvider.getClientRegistration(providerId, oidcApplicationConfiguration);
+                jwkSetManager.prefetch(clientRegistration, OidcHandler.mapSignatureAlgorithmFromConfiguration(oidcApplicationConfiguration));
+                logger.debug("OIDC provider warmed up, application key: {}, provider ID: {}", applicationKey, providerId);
+            } catch (RuntimeException e) {
+                logger.warn("Unable to warm up OIDC provider, application key: {}, provider ID: {}, {}", applicationKey, providerId, e.getMessage());
+                logger.debug("Unable to warm up OIDC provider, application key: {}, provider ID: {}", applicationKey, providerId, e);
+                failures.put(applicationKey + "/" + providerId, String.valueOf(e.getMessage()));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service.oidc;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Health indicator of the OIDC warm-up, active in case Spring Boot Actuator is available and the warm-up is enabled.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = "org.springframework.boot.actuate.health.HealthIndicator")
+@ConditionalOnProperty(prefix = "activation.oidc.warm-up", name = "enabled", havingValue = "true")
+class OidcWarmUpHealthConfiguration {
+
+    /**
+     * Report {@code OUT_OF_SERVICE} until the OIDC warm-up completes, {@code UP} with failed steps afterwards.
+     *
+     * @param warmUp OIDC warm-up.
+     * @return Health indicator.
+     */
+    @Bean
+    HealthIndicator oidcWarmUpHealthIndicator(final OidcWarmUp warmUp) {
+        return () -> {
+            if (!warmUp.isCompleted()) {
+                return Health.outOfService().build();
+            }
+            return Health.up().withDetail("failures", warmUp.getFailures()).build();
+        };
+    }
+
+}
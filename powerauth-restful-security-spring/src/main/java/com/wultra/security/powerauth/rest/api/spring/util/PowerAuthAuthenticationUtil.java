@@ -50,7 +50,7 @@ public final class PowerAuthAuthenticationUtil {
                 || auth.getActivationContext() == null
                 || auth.getActivationContext().getActivationId() == null) {
             logger.debug("Signature validation failed");
-            throw new PowerAuthSignatureInvalidException();
+            throw PowerAuthSignatureInvalidException.stackless();
         }
     }
 
@@ -0,0 +1,281 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import com.wultra.security.powerauth.rest.api.model.entity.ActivationType;
+import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthActivationException;
+import com.wultra.security.powerauth.rest.api.spring.provider.CustomActivationProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link ActivationCallbackOutbox}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ActivationCallbackOutboxTest {
+
+    private static final Map<String, String> IDENTITY = Map.of("username", "alice", "puk", "12345678");
+    private static final Map<String, String> ALLOWED_IDENTITY = Map.of("username", "alice");
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private CustomActivationProvider activationProvider;
+
+    private final JsonSerializationService jsonSerializationService = new JsonSerializationService();
+
+    private ActivationServiceConfigurationProperties configurationProperties;
+    private ActivationCallbackOutbox tested;
+    private Path directory;
+
+    @BeforeEach
+    void setUp() {
+        directory = tempDir.resolve("outbox");
+        configurationProperties = new ActivationServiceConfigurationProperties();
+        final ActivationServiceConfigurationProperties.CallbackOutbox configuration = configurationProperties.getCallbackOutbox();
+        configuration.setEnabled(true);
+        configuration.setDirectory(directory.toString());
+        configuration.setWorkers(1);
+        configuration.setMaxAttempts(3);
+        configuration.setRetryBackoff(Duration.ofMillis(10));
+        configuration.setMaxRetryBackoff(Duration.ofMillis(40));
+        configuration.setIdentityAttributes(Set.of("username"));
+        tested = new ActivationCallbackOutbox(configurationProperties, jsonSerializationService);
+        tested.setActivationProvider(activationProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tested.close();
+    }
+
+    @Test
+    void testStart_emptyIdentityAllowList() {
+        configurationProperties.getCallbackOutbox().setIdentityAttributes(Set.of());
+        assertThrows(IllegalStateException.class, tested::start);
+    }
+
+    @Test
+    void testActivationWasCommitted_allowedIdentityAttributes() throws Exception {
+        tested.start();
+        tested.activationWasCommitted(IDENTITY, Map.of("channel", "web"), "activation-1", "user-1", "app-1", ActivationType.CUSTOM, Map.of());
+
+        verify(activationProvider, timeout(5_000)).activationWasCommitted(ALLOWED_IDENTITY, Map.of("channel", "web"), "activation-1", "user-1", "app-1", ActivationType.CUSTOM, Map.of());
+        awaitCondition(() -> eventFiles().isEmpty());
+    }
+
+    @Test
+    void testActivationWasCommitted_synchronousFallbackAllowedIdentityAttributes() throws Exception {
+        tested.start();
+        final Map<String, Object> customAttributes = Map.of("date", LocalDate.of(2026, 1, 1));
+        tested.activationWasCommitted(IDENTITY, customAttributes, "activation-1", "user-1", "app-1", ActivationType.CUSTOM, Map.of());
+
+        // Delivered on the calling thread, nothing is stored
+        verify(activationProvider).activationWasCommitted(ALLOWED_IDENTITY, customAttributes, "activation-1", "user-1", "app-1", ActivationType.CUSTOM, Map.of());
+        assertTrue(eventFiles().isEmpty());
+    }
+
+    @Test
+    void testActivationWasCommitted_outboxDisabled() throws Exception {
+        configurationProperties.getCallbackOutbox().setEnabled(false);
+        tested.start();
+        tested.activationWasCommitted(IDENTITY, Map.of(), "activation-1", "user-1", "app-1", ActivationType.CUSTOM, Map.of());
+
+        verify(activationProvider).activationWasCommitted(IDENTITY, Map.of(), "activation-1", "user-1", "app-1", ActivationType.CUSTOM, Map.of());
+    }
+
+    @Test
+    void testEventFileWrittenAtomically() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .when(activationProvider).activationWasCommitted(any(), any(), anyString(), anyString(), anyString(), any(), any());
+        tested.start();
+        tested.activationWasCommitted(IDENTITY, Map.of("count", 1), "activation-1", "user-1", "app-1", ActivationType.CUSTOM, Map.of());
+
+        try {
+            final List<Path> files = eventFiles();
+            assertEquals(1, files.size());
+            try (Stream<Path> stream = Files.list(directory)) {
+                assertTrue(stream.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+            }
+            final Path file = files.get(0);
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+                assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(directory));
+            }
+            final byte[] data = Files.readAllBytes(file);
+            assertFalse(new String(data, StandardCharsets.UTF_8).contains("12345678"));
+            final ActivationCallbackOutbox.ActivationCallbackEvent event = jsonSerializationService.readValue(data, ActivationCallbackOutbox.ActivationCallbackEvent.class);
+            assertEquals(ActivationCallbackOutbox.CallbackType.ACTIVATION_COMMITTED, event.type());
+            assertEquals(ALLOWED_IDENTITY, event.identityAttributes());
+            assertEquals(Map.of("count", 1), event.customAttributes());
+            assertEquals(0, event.attempt());
+        } finally {
+            release.countDown();
+        }
+        awaitCondition(() -> eventFiles().isEmpty());
+    }
+
+    @Test
+    void testRetryWithBackoff() throws Exception {
+        doThrow(new PowerAuthActivationException("first"))
+                .doThrow(new PowerAuthActivationException("second"))
+                .doNothing()
+                .when(activationProvider).activationWasRemoved("activation-1", "user-1", "app-1");
+        tested.start();
+        tested.activationWasRemoved("activation-1", "user-1", "app-1");
+
+        verify(activationProvider, timeout(5_000).times(3)).activationWasRemoved("activation-1", "user-1", "app-1");
+        awaitCondition(() -> eventFiles().isEmpty());
+        assertTrue(deadLetters().isEmpty());
+    }
+
+    @Test
+    void testRetryDelay() {
+        assertEquals(Duration.ofMillis(10), tested.retryDelay(1));
+        assertEquals(Duration.ofMillis(20), tested.retryDelay(2));
+        assertEquals(Duration.ofMillis(40), tested.retryDelay(3));
+        assertEquals(Duration.ofMillis(40), tested.retryDelay(30));
+    }
+
+    @Test
+    void testDeadLetter() throws Exception {
+        doThrow(new PowerAuthActivationException("failed"))
+                .when(activationProvider).activationWasRemoved("activation-1", "user-1", "app-1");
+        tested.start();
+        tested.activationWasRemoved("activation-1", "user-1", "app-1");
+
+        awaitCondition(() -> deadLetters().size() == 1);
+        verify(activationProvider, times(3)).activationWasRemoved("activation-1", "user-1", "app-1");
+        assertTrue(eventFiles().isEmpty());
+        final ActivationCallbackOutbox.ActivationCallbackEvent event = jsonSerializationService.readValue(
+                Files.readAllBytes(deadLetters().get(0)), ActivationCallbackOutbox.ActivationCallbackEvent.class);
+        assertEquals("activation-1", event.activationId());
+    }
+
+    @Test
+    void testReplay() throws Exception {
+        tested.start();
+        final ActivationCallbackOutbox.ActivationCallbackEvent event = new ActivationCallbackOutbox.ActivationCallbackEvent(
+                ActivationCallbackOutbox.CallbackType.ACTIVATION_REMOVED, null, null, "activation-1", "user-1", "app-1", null, null, 1);
+        final Path file = directory.resolve("00000000000000000001-replay.json");
+        Files.write(file, jsonSerializationService.writeValueAsBytes(event));
+        final Path temporaryFile = directory.resolve("00000000000000000002-incomplete.json.tmp");
+        Files.write(temporaryFile, new byte[] {'{'});
+
+        tested.onApplicationEvent(mock(ApplicationReadyEvent.class));
+
+        verify(activationProvider, timeout(5_000)).activationWasRemoved("activation-1", "user-1", "app-1");
+        awaitCondition(() -> Files.notExists(file));
+        assertTrue(Files.notExists(temporaryFile));
+    }
+
+    @Test
+    void testReplay_unreadableFileMovedToDeadLetters() throws Exception {
+        tested.start();
+        Files.write(directory.resolve("00000000000000000001-corrupted.json"), new byte[] {'{'});
+
+        tested.onApplicationEvent(mock(ApplicationReadyEvent.class));
+
+        assertEquals(1, deadLetters().size());
+        assertTrue(eventFiles().isEmpty());
+        verifyNoInteractions(activationProvider);
+    }
+
+    @Test
+    void testReplay_queuedCallbackNotReplayed() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .when(activationProvider).activationWasRemoved("activation-1", "user-1", "app-1");
+        tested.start();
+        tested.activationWasRemoved("activation-1", "user-1", "app-1");
+
+        tested.onApplicationEvent(mock(ApplicationReadyEvent.class));
+        release.countDown();
+
+        awaitCondition(() -> eventFiles().isEmpty());
+        verify(activationProvider, after(200).times(1)).activationWasRemoved("activation-1", "user-1", "app-1");
+        assertTrue(deadLetters().isEmpty());
+    }
+
+    @Test
+    void testIsJsonNative() {
+        assertTrue(ActivationCallbackOutbox.isJsonNative(Map.of("string", "value", "number", 1, "flag", true, "list", List.of(1.5))));
+        assertTrue(ActivationCallbackOutbox.isJsonNative(Long.MAX_VALUE));
+        assertFalse(ActivationCallbackOutbox.isJsonNative(1L));
+        assertFalse(ActivationCallbackOutbox.isJsonNative(Map.of("date", LocalDate.of(2026, 1, 1))));
+        assertFalse(ActivationCallbackOutbox.isJsonNative(Map.of(1, "value")));
+    }
+
+    private List<Path> eventFiles() {
+        return list(directory, ".json");
+    }
+
+    private List<Path> deadLetters() {
+        return list(directory.resolve("dead"), ".json");
+    }
+
+    private static List<Path> list(final Path path, final String suffix) {
+        try (Stream<Path> stream = Files.list(path)) {
+            return stream.filter(file -> file.getFileName().toString().endsWith(suffix)).toList();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void awaitCondition(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within timeout");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+}
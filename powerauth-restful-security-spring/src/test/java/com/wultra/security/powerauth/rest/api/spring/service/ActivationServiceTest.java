@@ -0,0 +1,204 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2026 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wultra.security.powerauth.rest.api.spring.service;
+
+import com.wultra.security.powerauth.client.PowerAuthClient;
+import com.wultra.security.powerauth.client.model.enumeration.ActivationStatus;
+import com.wultra.security.powerauth.client.model.error.PowerAuthClientException;
+import com.wultra.security.powerauth.client.model.response.CommitActivationResponse;
+import com.wultra.security.powerauth.client.model.response.PrepareActivationResponse;
+import com.wultra.security.powerauth.rest.api.model.entity.ActivationType;
+import com.wultra.security.powerauth.rest.api.model.request.ActivationLayer1Request;
+import com.wultra.security.powerauth.rest.api.model.request.EciesEncryptedRequest;
+import com.wultra.security.powerauth.rest.api.spring.converter.ActivationContextConverter;
+import com.wultra.security.powerauth.rest.api.spring.converter.ActivationStatusConverter;
+import com.wultra.security.powerauth.rest.api.spring.encryption.EncryptionContext;
+import com.wultra.security.powerauth.rest.api.spring.encryption.EncryptionScope;
+import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthActivationException;
+import com.wultra.security.powerauth.rest.api.spring.model.UserInfoContext;
+import com.wultra.security.powerauth.rest.api.spring.provider.CustomActivationProvider;
+import com.wultra.security.powerauth.rest.api.spring.provider.UserInfoProvider;
+import com.wultra.security.powerauth.rest.api.spring.service.oidc.OidcHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link ActivationService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ActivationServiceTest {
+
+    private static final String ACTIVATION_ID = "activation-1";
+    private static final Map<String, String> IDENTITY = Map.of("code", "VVVVV-VVVVV-VVVVV-VTFVA");
+
+    @Mock
+    private PowerAuthClient powerAuthClient;
+
+    @Mock
+    private OidcHandler oidcHandler;
+
+    @Mock
+    private CustomActivationProvider activationProvider;
+
+    @Mock
+    private ActivationFlagsBuffer activationFlagsBuffer;
+
+    private ActivationService tested;
+
+    @BeforeEach
+    void setUp() {
+        tested = new ActivationService(powerAuthClient, new HttpCustomizationService(), new ActivationContextConverter(new ActivationStatusConverter()), oidcHandler);
+        tested.setPowerAuthActivationProvider(activationProvider);
+        tested.setActivationFlagsBuffer(activationFlagsBuffer);
+    }
+
+    @Test
+    void testCreateActivation_flagsFlushedBeforeCommit() throws Exception {
+        when(powerAuthClient.prepareActivation(any(), any(), any())).thenReturn(prepareResponse(ActivationStatus.PENDING_COMMIT));
+        when(activationProvider.getActivationFlags(any(), any(), eq(ACTIVATION_ID), any(), any(), eq(ActivationType.CODE), any())).thenReturn(List.of("FLAG"));
+        when(activationProvider.shouldAutoCommitActivation(any(), any(), eq(ACTIVATION_ID), any(), any(), eq(ActivationType.CODE), any())).thenReturn(true);
+        final CommitActivationResponse commitResponse = new CommitActivationResponse();
+        commitResponse.setActivated(true);
+        when(powerAuthClient.commitActivation(any(), any(), any())).thenReturn(commitResponse);
+
+        tested.createActivation(codeActivationRequest(), encryptionContext());
+
+        final InOrder inOrder = inOrder(activationFlagsBuffer, powerAuthClient);
+        inOrder.verify(activationFlagsBuffer).addActivationFlags(ACTIVATION_ID, List.of("FLAG"));
+        inOrder.verify(activationFlagsBuffer).flushActivationFlags(ACTIVATION_ID);
+        inOrder.verify(powerAuthClient).commitActivation(any(), any(), any());
+    }
+
+    @Test
+    void testCreateActivation_flagsFlushedForInstantlyActiveActivation() throws Exception {
+        when(powerAuthClient.prepareActivation(any(), any(), any())).thenReturn(prepareResponse(ActivationStatus.ACTIVE));
+        when(activationProvider.getActivationFlags(any(), any(), eq(ACTIVATION_ID), any(), any(), eq(ActivationType.CODE), any())).thenReturn(List.of("FLAG"));
+
+        tested.createActivation(codeActivationRequest(), encryptionContext());
+
+        final InOrder inOrder = inOrder(activationFlagsBuffer, activationProvider);
+        inOrder.verify(activationFlagsBuffer).addActivationFlags(ACTIVATION_ID, List.of("FLAG"));
+        inOrder.verify(activationFlagsBuffer).flushActivationFlags(ACTIVATION_ID);
+        inOrder.verify(activationProvider).activationWasCommitted(any(), any(), eq(ACTIVATION_ID), any(), any(), eq(ActivationType.CODE), any());
+        verify(powerAuthClient, never()).commitActivation(any(), any(), any());
+    }
+
+    @Test
+    void testCreateActivation_flushFailurePreventsCommit() throws Exception {
+        when(powerAuthClient.prepareActivation(any(), any(), any())).thenReturn(prepareResponse(ActivationStatus.PENDING_COMMIT));
+        when(activationProvider.getActivationFlags(any(), any(), eq(ACTIVATION_ID), any(), any(), eq(ActivationType.CODE), any())).thenReturn(List.of("FLAG"));
+        when(activationProvider.shouldAutoCommitActivation(any(), any(), eq(ACTIVATION_ID), any(), any(), eq(ActivationType.CODE), any())).thenReturn(true);
+        doThrow(new PowerAuthClientException("Server unavailable")).when(activationFlagsBuffer).flushActivationFlags(ACTIVATION_ID);
+
+        assertThrows(PowerAuthActivationException.class, () -> tested.createActivation(codeActivationRequest(), encryptionContext()));
+
+        verify(powerAuthClient, never()).commitActivation(any(), any(), any());
+        verify(activationProvider, never()).activationWasCommitted(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateActivation_userInfoCancelledOnProcessingFailure() throws Exception {
+        final CountDownLatch userInfoStarted = new CountDownLatch(1);
+        final CountDownLatch userInfoInterrupted = new CountDownLatch(1);
+        final UserInfoProvider userInfoProvider = new UserInfoProvider() {
+            @Override
+            public boolean shouldReturnUserInfo(UserInfoContext context) {
+                return true;
+            }
+
+            @Override
+            public Map<String, Object> fetchUserClaimsForUserId(UserInfoContext context) {
+                userInfoStarted.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException ex) {
+                    userInfoInterrupted.countDown();
+                }
+                return Map.of();
+            }
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final ActivationServiceConfigurationProperties configurationProperties = new ActivationServiceConfigurationProperties();
+            configurationProperties.getUserInfo().setParallel(true);
+            tested.setConfigurationProperties(configurationProperties);
+            tested.setUserInfoProvider(userInfoProvider);
+            tested.setActivationExecutor(executor);
+            when(powerAuthClient.prepareActivation(any(), any(), any())).thenReturn(prepareResponse(ActivationStatus.PENDING_COMMIT));
+            when(activationProvider.processCustomActivationAttributes(any(), eq(ACTIVATION_ID), any(), any(), eq(ActivationType.CODE), any())).then(invocation -> {
+                assertTrue(userInfoStarted.await(5, TimeUnit.SECONDS), "User info fetch must be running");
+                throw new PowerAuthActivationException("Invalid custom attributes");
+            });
+
+            assertThrows(PowerAuthActivationException.class, () -> tested.createActivation(codeActivationRequest(), encryptionContext()));
+
+            assertTrue(userInfoInterrupted.await(5, TimeUnit.SECONDS), "User info fetch must be cancelled");
+            verify(powerAuthClient, never()).commitActivation(any(), any(), any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ActivationLayer1Request codeActivationRequest() {
+        final EciesEncryptedRequest activationData = new EciesEncryptedRequest();
+        activationData.setTemporaryKeyId("temporary-key-1");
+        activationData.setEphemeralPublicKey("ephemeral-public-key");
+        activationData.setEncryptedData("encrypted-data");
+        activationData.setMac("mac");
+        activationData.setNonce("nonce");
+        activationData.setTimestamp(1767225600000L);
+
+        final ActivationLayer1Request request = new ActivationLayer1Request();
+        request.setType(ActivationType.CODE);
+        request.setIdentityAttributes(IDENTITY);
+        request.setActivationData(activationData);
+        return request;
+    }
+
+    private static EncryptionContext encryptionContext() {
+        return new EncryptionContext("AIsOlIghnLztV2np3SANnQ==", null, "3.2", null, EncryptionScope.APPLICATION_SCOPE);
+    }
+
+    private static PrepareActivationResponse prepareResponse(final ActivationStatus activationStatus) {
+        final PrepareActivationResponse response = new PrepareActivationResponse();
+        response.setActivationId(ACTIVATION_ID);
+        response.setUserId("user-1");
+        response.setApplicationId("application-1");
+        response.setActivationStatus(activationStatus);
+        return response;
+    }
+
+}
@@ -27,13 +27,15 @@ import com.wultra.security.powerauth.client.model.request.LookupApplicationByApp
 import com.wultra.security.powerauth.client.model.response.GetApplicationConfigResponse;
 import com.wultra.security.powerauth.client.model.response.LookupApplicationByAppKeyResponse;
 import com.wultra.security.powerauth.rest.api.spring.exception.PowerAuthApplicationConfigurationException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -49,9 +51,13 @@ class OidcApplicationConfigurationServiceTest {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @InjectMocks
     private OidcApplicationConfigurationService tested;
 
+    @BeforeEach
+    void setUp() {
+        tested = new OidcApplicationConfigurationService(powerAuthClient, new OidcActivationConfigurationProperties());
+    }
+
     @Test
     void testFetchOidcApplicationConfiguration() throws Exception {
         final LookupApplicationByAppKeyRequest lookupRequest = new LookupApplicationByAppKeyRequest();
@@ -112,6 +118,44 @@ class OidcApplicationConfigurationServiceTest {
         assertEquals("Fetching application configuration failed, application ID: application-1, provider ID: non-existing", e.getMessage());
     }
 
+    @Test
+    void testFetchOidcApplicationConfiguration_cached() throws Exception {
+        final OidcActivationConfigurationProperties configurationProperties = new OidcActivationConfigurationProperties();
+        configurationProperties.getApplicationConfigurationCache().setEnabled(true);
+        tested = new OidcApplicationConfigurationService(powerAuthClient, configurationProperties);
+
+        final LookupApplicationByAppKeyRequest lookupRequest = new LookupApplicationByAppKeyRequest();
+        lookupRequest.setApplicationKey("AIsOlIghnLztV2np3SANnQ==");
+
+        final LookupApplicationByAppKeyResponse lookupResponse = new LookupApplicationByAppKeyResponse();
+        lookupResponse.setApplicationId("application-1");
+
+        when(powerAuthClient.lookupApplicationByAppKey(lookupRequest))
+                .thenReturn(lookupResponse);
+
+        final GetApplicationConfigRequest configRequest = new GetApplicationConfigRequest();
+        configRequest.setApplicationId("application-1");
+
+        final GetApplicationConfigResponse configResponse = createResponse();
+        when(powerAuthClient.getApplicationConfig(configRequest))
+                .thenReturn(configResponse);
+
+        final OidcConfigurationQuery query = OidcConfigurationQuery.builder()
+                .applicationKey("AIsOlIghnLztV2np3SANnQ==")
+                .providerId("xyz999")
+                .build();
+
+        final OidcApplicationConfiguration first = tested.fetchOidcApplicationConfiguration(query);
+        final OidcApplicationConfiguration second = tested.fetchOidcApplicationConfiguration(query);
+        assertSame(first, second);
+        verify(powerAuthClient, times(1)).getApplicationConfig(configRequest);
+
+        tested.invalidate("AIsOlIghnLztV2np3SANnQ==");
+        final OidcApplicationConfiguration third = tested.fetchOidcApplicationConfiguration(query);
+        assertEquals("jabberwocky", third.getClientId());
+        verify(powerAuthClient, times(2)).getApplicationConfig(configRequest);
+    }
+
     private GetApplicationConfigResponse createResponse() throws JsonProcessingException {
         final String json = """
                 {